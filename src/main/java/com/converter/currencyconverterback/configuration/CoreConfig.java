@@ -1,18 +1,21 @@
 package com.converter.currencyconverterback.configuration;
 
+import com.converter.currencyconverterback.jfr.UpstreamFetchTracingInterceptor;
+import com.converter.currencyconverterback.upstream.FetchPolicy;
 import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.web.client.RestClient;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Clock;
 import java.time.Duration;
+import java.time.ZoneId;
 
 
 @Configuration
-@EnableCaching
 public class CoreConfig {
 
     @Bean
@@ -25,8 +28,39 @@ public class CoreConfig {
 
     @Bean
     public RestClient.Builder restClientBuilder() {
+        // Bounds how long an abandoned attempt can keep a fetch thread busy after the fetch deadline has passed
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory();
+        requestFactory.setReadTimeout(Duration.ofSeconds(5));
         return RestClient.builder()
-                .requestFactory(new JdkClientHttpRequestFactory())
+                .requestFactory(requestFactory)
+                .requestInterceptor(new UpstreamFetchTracingInterceptor())
                 .baseUrl("http://localhost:8080");
     }
+
+    @Bean
+    public Clock clock() {
+        return Clock.system(ZoneId.of("Europe/Warsaw"));
+    }
+
+    @Bean
+    public FetchPolicy nbpFetchPolicy(Environment environment) {
+        return fetchPolicy(environment, "nbp.fetch");
+    }
+
+    @Bean
+    public FetchPolicy ecbFetchPolicy(Environment environment) {
+        return fetchPolicy(environment, "ecb.fetch");
+    }
+
+    /**
+     * Reads one upstream's limits from the {@code <prefix>.*} properties, with the same defaults for every upstream.
+     */
+    private static FetchPolicy fetchPolicy(Environment environment, String prefix) {
+        return new FetchPolicy(
+                Duration.ofMillis(environment.getProperty(prefix + ".deadline-ms", Long.class, 3000L)),
+                Duration.ofMillis(environment.getProperty(prefix + ".initial-hedge-delay-ms", Long.class, 500L)),
+                Duration.ofMillis(environment.getProperty(prefix + ".min-hedge-delay-ms", Long.class, 50L)),
+                environment.getProperty(prefix + ".failure-threshold", Integer.class, 5),
+                Duration.ofMillis(environment.getProperty(prefix + ".open-duration-ms", Long.class, 30000L)));
+    }
 }
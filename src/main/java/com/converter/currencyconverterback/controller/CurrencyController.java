@@ -1,11 +1,17 @@
 package com.converter.currencyconverterback.controller;
 
 import com.converter.currencyconverterback.domain.Rates;
+import com.converter.currencyconverterback.domain.RatesSnapshot;
+import com.converter.currencyconverterback.jfr.ConversionEvent;
 import com.converter.currencyconverterback.nbp.NbpClient;
+import com.converter.currencyconverterback.service.ConversionMemo;
+import com.converter.currencyconverterback.service.ConversionRowCache;
 import com.converter.currencyconverterback.service.CurrencyConversionService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -19,6 +25,8 @@ public class CurrencyController {
 
     private final NbpClient nbpClient;
     private final CurrencyConversionService currencyConversionService;
+    private final ConversionRowCache conversionRowCache;
+    private final ConversionMemo conversionMemo;
 
     @GetMapping("/currencies")
     public ResponseEntity<List<Rates>> getCurrencies() {
@@ -32,7 +40,50 @@ public class CurrencyController {
             @RequestParam String currencyFrom,
             @RequestParam String currencyTo) {
 
-        BigDecimal result = currencyConversionService.convertCurrency(amount, currencyFrom, currencyTo);
-        return ResponseEntity.ok(result);
+        ConversionEvent event = new ConversionEvent();
+        event.begin();
+        try {
+            return ResponseEntity.ok(conversionMemo.convert(amount, currencyFrom, currencyTo));
+        } finally {
+            commit(event, currencyFrom, currencyTo);
+        }
+    }
+
+    @GetMapping("/results")
+    public ResponseEntity<byte[]> showResults(
+            @RequestParam BigDecimal amount,
+            @RequestParam String currencyFrom,
+            @RequestParam(required = false) List<String> currencyTo,
+            WebRequest request) {
+
+        ConversionEvent event = new ConversionEvent();
+        event.begin();
+        try {
+            RatesSnapshot snapshot = nbpClient.getSnapshot();
+            // An invalid request must get its 400 even when the client already holds this table
+            currencyConversionService.validateConversion(snapshot, amount, currencyFrom, currencyTo);
+            String eTag = snapshot.getTableNo() == null ? null : "\"" + snapshot.getTableNo() + "\"";
+            if (eTag != null && request.checkNotModified(eTag)) {
+                return null;
+            }
+
+            byte[] row = conversionRowCache.getSerializedRow(snapshot, amount, currencyFrom, currencyTo);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON);
+            if (eTag != null) {
+                response.eTag(eTag);
+            }
+            return response.body(row);
+        } finally {
+            commit(event, currencyFrom, currencyTo == null ? "*" : String.join(",", currencyTo));
+        }
+    }
+
+    private static void commit(ConversionEvent event, String currencyFrom, String currencyTo) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.currencyFrom = currencyFrom;
+            event.currencyTo = currencyTo;
+            event.commit();
+        }
     }
 }
@@ -0,0 +1,40 @@
+package com.converter.currencyconverterback.controller;
+
+import com.converter.currencyconverterback.domain.RangeSummary;
+import com.converter.currencyconverterback.domain.RatePoint;
+import com.converter.currencyconverterback.history.HistoricalRatesService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+
+@CrossOrigin(origins = "*")
+@RestController
+@RequestMapping("/v1/history")
+@RequiredArgsConstructor
+public class HistoryController {
+
+    private final HistoricalRatesService historicalRatesService;
+
+    @GetMapping("/{code}/summary")
+    public ResponseEntity<RangeSummary> getSummary(
+            @PathVariable String code,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+
+        return ResponseEntity.ok(historicalRatesService.getSummary(code, from, to));
+    }
+
+    @GetMapping("/{code}/series")
+    public ResponseEntity<List<RatePoint>> getSeries(
+            @PathVariable String code,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+
+        return ResponseEntity.ok(historicalRatesService.getSeries(code, from, to));
+    }
+}
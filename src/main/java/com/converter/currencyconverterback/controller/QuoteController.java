@@ -0,0 +1,33 @@
+package com.converter.currencyconverterback.controller;
+
+import com.converter.currencyconverterback.domain.Quote;
+import com.converter.currencyconverterback.quote.QuoteService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.math.BigDecimal;
+
+
+@CrossOrigin(origins = "*")
+@RestController
+@RequestMapping("/v1/quotes")
+@RequiredArgsConstructor
+public class QuoteController {
+
+    private final QuoteService quoteService;
+
+    @PostMapping
+    public ResponseEntity<Quote> issueQuote(
+            @RequestParam BigDecimal amount,
+            @RequestParam String currencyFrom,
+            @RequestParam String currencyTo) {
+
+        return ResponseEntity.ok(quoteService.issueQuote(amount, currencyFrom, currencyTo));
+    }
+
+    @PostMapping("/{id}/redeem")
+    public ResponseEntity<BigDecimal> redeemQuote(@PathVariable String id) {
+        return ResponseEntity.ok(quoteService.redeemQuote(id));
+    }
+}
@@ -0,0 +1,40 @@
+package com.converter.currencyconverterback.controller;
+
+import com.converter.currencyconverterback.nbp.NbpClient;
+import com.converter.currencyconverterback.quote.QuoteService;
+import com.converter.currencyconverterback.quote.QuoteStats;
+import com.converter.currencyconverterback.service.ConversionMemo;
+import com.converter.currencyconverterback.service.ConversionMemoStats;
+import com.converter.currencyconverterback.upstream.FetchStats;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+
+@CrossOrigin(origins = "*")
+@RestController
+@RequestMapping("/v1/stats")
+@RequiredArgsConstructor
+public class StatsController {
+
+    private final NbpClient nbpClient;
+    private final QuoteService quoteService;
+    private final ConversionMemo conversionMemo;
+
+    @GetMapping("/upstream")
+    public ResponseEntity<List<FetchStats>> getUpstreamStats() {
+        return ResponseEntity.ok(nbpClient.getFetchStats());
+    }
+
+    @GetMapping("/quotes")
+    public ResponseEntity<QuoteStats> getQuoteStats() {
+        return ResponseEntity.ok(quoteService.getStats());
+    }
+
+    @GetMapping("/conversions")
+    public ResponseEntity<ConversionMemoStats> getConversionStats() {
+        return ResponseEntity.ok(conversionMemo.getStats());
+    }
+}
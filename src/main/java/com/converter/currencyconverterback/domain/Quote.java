@@ -0,0 +1,22 @@
+package com.converter.currencyconverterback.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Quote {
+
+    private String id;
+    private BigDecimal amount;
+    private String currencyFrom;
+    private String currencyTo;
+    private BigDecimal result;
+    private Instant expiresAt;
+}
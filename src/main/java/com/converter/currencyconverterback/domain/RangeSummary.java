@@ -0,0 +1,29 @@
+package com.converter.currencyconverterback.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RangeSummary {
+
+    private String code;
+    private LocalDate from;
+    private LocalDate to;
+    private int tables;
+    private BigDecimal minBid;
+    private BigDecimal maxBid;
+    private BigDecimal avgBid;
+    private BigDecimal lastBid;
+    private BigDecimal minAsk;
+    private BigDecimal maxAsk;
+    private BigDecimal avgAsk;
+    private BigDecimal lastAsk;
+    private LocalDate lastDate;
+}
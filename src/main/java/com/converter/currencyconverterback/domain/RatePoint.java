@@ -0,0 +1,19 @@
+package com.converter.currencyconverterback.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RatePoint {
+
+    private LocalDate date;
+    private BigDecimal bid;
+    private BigDecimal ask;
+}
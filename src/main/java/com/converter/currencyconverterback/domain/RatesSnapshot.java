@@ -0,0 +1,53 @@
+package com.converter.currencyconverterback.domain;
+
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * One published rate table: its number, the effective date of its NBP table (null when no NBP rates are in it)
+ * and rates, indexed by currency code.
+ * Snapshots are never modified after construction, so a reader holding one always sees a consistent table.
+ */
+@Getter
+public class RatesSnapshot {
+
+    private static final AtomicLong VERSIONS = new AtomicLong();
+
+    public static final RatesSnapshot EMPTY = new RatesSnapshot(null, null, Collections.emptyList());
+
+    /**
+     * Creation order of snapshots: of two snapshots, the one with the higher version was built later.
+     */
+    private final long version = VERSIONS.incrementAndGet();
+
+    private final String tableNo;
+    private final String effectiveDate;
+    private final List<Rates> rates;
+    private final Map<String, Rates> ratesByCode;
+
+    public RatesSnapshot(String tableNo, String effectiveDate, List<Rates> rates) {
+        this.tableNo = tableNo;
+        this.effectiveDate = effectiveDate;
+        this.rates = Collections.unmodifiableList(rates);
+        Map<String, Rates> byCode = new LinkedHashMap<>();
+        for (Rates rate : rates) {
+            byCode.putIfAbsent(rate.getCode(), rate);
+        }
+        this.ratesByCode = Collections.unmodifiableMap(byCode);
+    }
+
+    public Optional<Rates> findRate(String code) {
+        return Optional.ofNullable(ratesByCode.get(code));
+    }
+
+    public boolean isEmpty() {
+        return rates.isEmpty();
+    }
+}
@@ -29,6 +29,30 @@ public class GlobalExceptionHandler {
         return buildErrorResponse(HttpStatus.BAD_REQUEST, message);
     }
 
+    @ExceptionHandler(QuoteNotFoundException.class)
+    public ResponseEntity<Map<String, Object>> handleQuoteNotFound(QuoteNotFoundException ex) {
+        log.error("Quote not found: {}", ex.getMessage());
+        return buildErrorResponse(HttpStatus.NOT_FOUND, ex.getMessage());
+    }
+
+    @ExceptionHandler(QuoteCapacityExceededException.class)
+    public ResponseEntity<Map<String, Object>> handleQuoteCapacityExceeded(QuoteCapacityExceededException ex) {
+        log.error("Quote capacity exceeded: {}", ex.getMessage());
+        return buildErrorResponse(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage());
+    }
+
+    @ExceptionHandler(UpstreamUnavailableException.class)
+    public ResponseEntity<Map<String, Object>> handleUpstreamUnavailable(UpstreamUnavailableException ex) {
+        log.error("Upstream unavailable: {}", ex.getMessage());
+        return buildErrorResponse(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage());
+    }
+
+    @ExceptionHandler(HistoryLoadingException.class)
+    public ResponseEntity<Map<String, Object>> handleHistoryLoading(HistoryLoadingException ex) {
+        log.warn("History still loading: {}", ex.getMessage());
+        return buildErrorResponse(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage());
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Map<String, Object>> handleGeneralException(Exception ex) {
         log.error("Unexpected error occurred", ex);
@@ -0,0 +1,9 @@
+package com.converter.currencyconverterback.exception;
+
+
+public class HistoryLoadingException extends RuntimeException {
+
+    public HistoryLoadingException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,9 @@
+package com.converter.currencyconverterback.exception;
+
+
+public class QuoteCapacityExceededException extends RuntimeException {
+
+    public QuoteCapacityExceededException(String message) {
+        super(message);
+    }
+}
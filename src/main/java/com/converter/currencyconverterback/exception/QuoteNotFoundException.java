@@ -0,0 +1,9 @@
+package com.converter.currencyconverterback.exception;
+
+
+public class QuoteNotFoundException extends RuntimeException {
+
+    public QuoteNotFoundException(String message) {
+        super(message);
+    }
+}
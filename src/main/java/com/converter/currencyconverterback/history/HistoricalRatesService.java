@@ -0,0 +1,288 @@
+package com.converter.currencyconverterback.history;
+
+import com.converter.currencyconverterback.domain.Currency;
+import com.converter.currencyconverterback.domain.RangeSummary;
+import com.converter.currencyconverterback.domain.RatePoint;
+import com.converter.currencyconverterback.domain.Rates;
+import com.converter.currencyconverterback.exception.HistoryLoadingException;
+import com.converter.currencyconverterback.nbp.NbpClient;
+import com.converter.currencyconverterback.nbp.PublicationCalendar;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+
+/**
+ * Answers min/max/average/last and time-series queries over historical table C rates.
+ * <p>
+ * Tables are loaded lazily from NBP's date-range API in chunks of at most 93 days and kept as one
+ * {@link RateSeries} per currency. The loaded range only ever grows; a query reaching outside of it loads the
+ * missing days and rebuilds the series, everything else is served from memory without waiting for loads. Range
+ * fetches run under NBP's fetch policy, and one query may load at most {@code history.max-backfill-days} missing
+ * days, which bounds how long it holds up other queries that need loading. A query needing more is answered with
+ * {@link HistoryLoadingException} while a background backfill loads the missing days in steps of that size, each
+ * step taking the load lock on its own. Chunks fetched before a failure are kept.
+ */
+@Service
+@Slf4j
+public class HistoricalRatesService {
+
+    static final LocalDate FIRST_TABLE_C = LocalDate.of(2002, 1, 2);
+    private static final int MAX_DAYS_PER_REQUEST = 93;
+
+    private final NbpClient nbpClient;
+    private final PublicationCalendar calendar;
+    private final Clock clock;
+    private final Duration todayRetryInterval;
+    private final long maxBackfillDays;
+    private final ExecutorService backfillExecutor;
+    private final AtomicBoolean backfilling = new AtomicBoolean();
+
+    // Replaced as a whole, so queries inside the loaded range read it without waiting for loads
+    private volatile Loaded loaded = Loaded.NOTHING;
+
+    public HistoricalRatesService(
+            NbpClient nbpClient,
+            PublicationCalendar calendar,
+            Clock clock,
+            @Value("${history.today-retry-interval-ms:300000}") long todayRetryIntervalMs,
+            @Value("${history.max-backfill-days:1116}") long maxBackfillDays) {
+        this.nbpClient = nbpClient;
+        this.calendar = calendar;
+        this.clock = clock;
+        this.todayRetryInterval = Duration.ofMillis(todayRetryIntervalMs);
+        this.maxBackfillDays = maxBackfillDays;
+        this.backfillExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "history-backfill");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public RangeSummary getSummary(String code, LocalDate from, LocalDate to) {
+        RangeSummary summary = seriesFor(code, from, to).summarize(code, from, to);
+        if (summary == null) {
+            throw new IllegalArgumentException("No rates for " + code + " between " + from + " and " + to);
+        }
+        return summary;
+    }
+
+    public List<RatePoint> getSeries(String code, LocalDate from, LocalDate to) {
+        return seriesFor(code, from, to).points(from, to);
+    }
+
+    private RateSeries seriesFor(String code, LocalDate from, LocalDate to) {
+        if (code == null || from == null || to == null) {
+            throw new IllegalArgumentException("Currency code and dates cannot be null");
+        }
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Start date must not be after end date");
+        }
+
+        LocalDate today = LocalDate.now(clock);
+        LocalDate loadFrom = from.isBefore(FIRST_TABLE_C) ? FIRST_TABLE_C : from;
+        LocalDate loadTo = to.isAfter(today) ? today : to;
+        Loaded current = loaded;
+        if (!loadFrom.isAfter(loadTo) && current.misses(loadFrom, loadTo, today, clock.instant(), todayRetryInterval)) {
+            current = ensureLoaded(loadFrom, loadTo, today);
+        }
+
+        RateSeries currencySeries = current.series().get(code);
+        if (currencySeries == null) {
+            throw new IllegalArgumentException("Currency not found: " + code);
+        }
+        return currencySeries;
+    }
+
+    synchronized Loaded ensureLoaded(LocalDate from, LocalDate to, LocalDate today) {
+        Loaded current = loaded;
+        if (current.from() == null) {
+            checkBackfill(ChronoUnit.DAYS.between(from, to) + 1, from, to);
+            loadForward(from, to);
+        } else {
+            // Another query may have loaded the range while this one waited
+            boolean loadBefore = from.isBefore(current.from());
+            boolean loadAfter = to.isAfter(current.to())
+                    && !current.isTodayRetryPending(to, today, clock.instant(), todayRetryInterval);
+            checkBackfill((loadBefore ? ChronoUnit.DAYS.between(from, current.from()) : 0)
+                    + (loadAfter ? ChronoUnit.DAYS.between(current.to(), to) : 0), from, to);
+            if (loadBefore) {
+                loadBackward(from, current.from().minusDays(1));
+            }
+            if (loadAfter) {
+                loadForward(current.to().plusDays(1), to);
+            }
+        }
+
+        // Today's table may not be published yet; leave today unloaded so a later query picks it up
+        current = loaded;
+        if (current.to().equals(today) && calendar.isPublicationDay(today)
+                && current.series().values().stream().noneMatch(rateSeries -> rateSeries.containsDay(today))) {
+            current = new Loaded(current.from(), today.minusDays(1), current.series(), clock.instant());
+            loaded = current;
+        }
+        return current;
+    }
+
+    private void checkBackfill(long missingDays, LocalDate from, LocalDate to) {
+        if (missingDays > maxBackfillDays) {
+            startBackfill(from, to);
+            throw new HistoryLoadingException("History between " + from + " and " + to + " is still loading ("
+                    + missingDays + " days missing), retry later");
+        }
+    }
+
+    /**
+     * Loads the range in the background, at most {@code history.max-backfill-days} days per step, starting next to
+     * what is loaded already. Only one backfill runs at a time; a query arriving while another range is being
+     * loaded starts its own once it is retried after that one ends. A failed step ends the backfill.
+     */
+    private void startBackfill(LocalDate from, LocalDate to) {
+        if (!backfilling.compareAndSet(false, true)) {
+            return;
+        }
+        backfillExecutor.execute(() -> {
+            try {
+                LocalDate today = LocalDate.now(clock);
+                Loaded current = loaded;
+                while (current.misses(from, to, today, clock.instant(), todayRetryInterval)) {
+                    if (current.from() == null) {
+                        LocalDate stepFrom = to.minusDays(maxBackfillDays - 1);
+                        current = ensureLoaded(stepFrom.isBefore(from) ? from : stepFrom, to, today);
+                    } else if (from.isBefore(current.from())) {
+                        LocalDate stepFrom = current.from().minusDays(maxBackfillDays);
+                        current = ensureLoaded(stepFrom.isBefore(from) ? from : stepFrom, current.to(), today);
+                    } else {
+                        LocalDate stepTo = current.to().plusDays(maxBackfillDays);
+                        current = ensureLoaded(current.from(), stepTo.isAfter(to) ? to : stepTo, today);
+                    }
+                }
+            } catch (RuntimeException e) {
+                log.warn("Backfill of history between {} and {} stopped: {}", from, to, e.getMessage());
+            } finally {
+                backfilling.set(false);
+            }
+        });
+    }
+
+    /**
+     * Loads the days from {@code from} to {@code to}, which start right after the loaded range (or anywhere when
+     * nothing is loaded yet), in chunks walking forward. Chunks fetched before a failure are kept and the loaded
+     * range is extended over them only.
+     */
+    private void loadForward(LocalDate from, LocalDate to) {
+        Map<String, TreeMap<Integer, long[]>> chunks = new HashMap<>();
+        LocalDate reached = from.minusDays(1);
+        try {
+            for (LocalDate start = from; !start.isAfter(to); start = start.plusDays(MAX_DAYS_PER_REQUEST)) {
+                LocalDate end = start.plusDays(MAX_DAYS_PER_REQUEST - 1);
+                if (end.isAfter(to)) {
+                    end = to;
+                }
+                loadChunk(start, end, chunks);
+                reached = end;
+            }
+        } finally {
+            if (!reached.isBefore(from)) {
+                Loaded current = loaded;
+                loaded = new Loaded(current.from() == null ? from : current.from(), reached,
+                        merge(current.series(), chunks), current.todayAttemptedAt());
+                log.info("Loaded historical tables between {} and {}", from, reached);
+            }
+        }
+    }
+
+    /**
+     * Loads the days from {@code from} to {@code to}, which end right before the loaded range, in chunks walking
+     * backward, so that whatever was fetched before a failure still adjoins the loaded range.
+     */
+    private void loadBackward(LocalDate from, LocalDate to) {
+        Map<String, TreeMap<Integer, long[]>> chunks = new HashMap<>();
+        LocalDate reached = to.plusDays(1);
+        try {
+            for (LocalDate end = to; !end.isBefore(from); end = end.minusDays(MAX_DAYS_PER_REQUEST)) {
+                LocalDate start = end.minusDays(MAX_DAYS_PER_REQUEST - 1);
+                if (start.isBefore(from)) {
+                    start = from;
+                }
+                loadChunk(start, end, chunks);
+                reached = start;
+            }
+        } finally {
+            if (!reached.isAfter(to)) {
+                Loaded current = loaded;
+                loaded = new Loaded(reached, current.to(), merge(current.series(), chunks), current.todayAttemptedAt());
+                log.info("Loaded historical tables between {} and {}", reached, to);
+            }
+        }
+    }
+
+    private void loadChunk(LocalDate from, LocalDate to, Map<String, TreeMap<Integer, long[]>> loaded) {
+        for (Currency table : nbpClient.getTables(from, to)) {
+            int day = (int) LocalDate.parse(table.getEffectiveDate()).toEpochDay();
+            for (Rates rate : table.getRates()) {
+                loaded.computeIfAbsent(rate.getCode(), code -> new TreeMap<>())
+                        .put(day, new long[]{RateSeries.toScaled(rate.getBid()), RateSeries.toScaled(rate.getAsk())});
+            }
+        }
+    }
+
+    private static Map<String, RateSeries> merge(Map<String, RateSeries> current, Map<String, TreeMap<Integer, long[]>> loaded) {
+        Map<String, RateSeries> merged = new HashMap<>(current);
+        loaded.forEach((code, points) -> {
+            RateSeries existing = current.get(code);
+            if (existing != null) {
+                for (int i = 0; i < existing.size(); i++) {
+                    points.putIfAbsent(existing.getDay(i), new long[]{existing.getBid(i), existing.getAsk(i)});
+                }
+            }
+
+            int[] days = new int[points.size()];
+            long[] bids = new long[points.size()];
+            long[] asks = new long[points.size()];
+            int i = 0;
+            for (Map.Entry<Integer, long[]> point : points.entrySet()) {
+                days[i] = point.getKey();
+                bids[i] = point.getValue()[0];
+                asks[i] = point.getValue()[1];
+                i++;
+            }
+            merged.put(code, new RateSeries(days, bids, asks));
+        });
+        return Map.copyOf(merged);
+    }
+
+    /**
+     * The loaded range, the series covering it and when today's table was last found missing.
+     */
+    record Loaded(LocalDate from, LocalDate to, Map<String, RateSeries> series, Instant todayAttemptedAt) {
+
+        static final Loaded NOTHING = new Loaded(null, null, Map.of(), null);
+
+        boolean misses(LocalDate queryFrom, LocalDate queryTo, LocalDate today, Instant now, Duration retryInterval) {
+            return from == null
+                    || queryFrom.isBefore(from)
+                    || queryTo.isAfter(to) && !isTodayRetryPending(queryTo, today, now, retryInterval);
+        }
+
+        boolean isTodayRetryPending(LocalDate queryTo, LocalDate today, Instant now, Duration retryInterval) {
+            return queryTo.equals(today)
+                    && to.equals(today.minusDays(1))
+                    && todayAttemptedAt != null
+                    && now.isBefore(todayAttemptedAt.plus(retryInterval));
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.converter.currencyconverterback.history;
+
+import com.converter.currencyconverterback.domain.RangeSummary;
+import com.converter.currencyconverterback.domain.RatePoint;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+
+/**
+ * Bid/ask history of one currency stored column-wise: sorted epoch days and bid/ask rates scaled to
+ * {@link #SCALE} decimal places as longs.
+ * <p>
+ * Prefix sums answer averages in O(1) and sparse tables answer minimum and maximum in O(1), so a range query
+ * costs two binary searches on the day column no matter how many years it spans.
+ */
+class RateSeries {
+
+    static final int SCALE = 4;
+
+    private final int[] days;
+    private final long[] bids;
+    private final long[] asks;
+    private final long[] bidSums;
+    private final long[] askSums;
+    private final long[][] bidMins;
+    private final long[][] bidMaxes;
+    private final long[][] askMins;
+    private final long[][] askMaxes;
+
+    RateSeries(int[] days, long[] bids, long[] asks) {
+        this.days = days;
+        this.bids = bids;
+        this.asks = asks;
+        this.bidSums = prefixSums(bids);
+        this.askSums = prefixSums(asks);
+        this.bidMins = sparseTable(bids, true);
+        this.bidMaxes = sparseTable(bids, false);
+        this.askMins = sparseTable(asks, true);
+        this.askMaxes = sparseTable(asks, false);
+    }
+
+    static long toScaled(BigDecimal rate) {
+        return rate.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    int size() {
+        return days.length;
+    }
+
+    int getDay(int index) {
+        return days[index];
+    }
+
+    long getBid(int index) {
+        return bids[index];
+    }
+
+    long getAsk(int index) {
+        return asks[index];
+    }
+
+    boolean containsDay(LocalDate date) {
+        return Arrays.binarySearch(days, (int) date.toEpochDay()) >= 0;
+    }
+
+    /**
+     * @return aggregates over the tables effective between {@code from} and {@code to} inclusive, or null if
+     * there are none
+     */
+    RangeSummary summarize(String code, LocalDate from, LocalDate to) {
+        int lo = firstIndexOnOrAfter((int) from.toEpochDay());
+        int hi = firstIndexOnOrAfter((int) to.toEpochDay() + 1) - 1;
+        if (lo > hi) {
+            return null;
+        }
+
+        int count = hi - lo + 1;
+        return new RangeSummary(code, from, to, count,
+                decimal(query(bidMins, lo, hi, true)),
+                decimal(query(bidMaxes, lo, hi, false)),
+                average(bidSums, lo, hi),
+                decimal(bids[hi]),
+                decimal(query(askMins, lo, hi, true)),
+                decimal(query(askMaxes, lo, hi, false)),
+                average(askSums, lo, hi),
+                decimal(asks[hi]),
+                LocalDate.ofEpochDay(days[hi]));
+    }
+
+    List<RatePoint> points(LocalDate from, LocalDate to) {
+        int lo = firstIndexOnOrAfter((int) from.toEpochDay());
+        int hi = firstIndexOnOrAfter((int) to.toEpochDay() + 1);
+        List<RatePoint> points = new ArrayList<>(Math.max(0, hi - lo));
+        for (int i = lo; i < hi; i++) {
+            points.add(new RatePoint(LocalDate.ofEpochDay(days[i]), decimal(bids[i]), decimal(asks[i])));
+        }
+        return points;
+    }
+
+    private int firstIndexOnOrAfter(int day) {
+        int index = Arrays.binarySearch(days, day);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    private BigDecimal average(long[] sums, int lo, int hi) {
+        return BigDecimal.valueOf(sums[hi + 1] - sums[lo], SCALE)
+                .divide(BigDecimal.valueOf(hi - lo + 1), SCALE, RoundingMode.HALF_UP);
+    }
+
+    private static BigDecimal decimal(long scaled) {
+        return BigDecimal.valueOf(scaled, SCALE);
+    }
+
+    private static long[] prefixSums(long[] values) {
+        long[] sums = new long[values.length + 1];
+        for (int i = 0; i < values.length; i++) {
+            sums[i + 1] = sums[i] + values[i];
+        }
+        return sums;
+    }
+
+    private static long[][] sparseTable(long[] values, boolean min) {
+        int levels = values.length == 0 ? 1 : 32 - Integer.numberOfLeadingZeros(values.length);
+        long[][] table = new long[levels][];
+        table[0] = values;
+        for (int level = 1; level < levels; level++) {
+            int half = 1 << (level - 1);
+            long[] previous = table[level - 1];
+            long[] current = new long[values.length - (1 << level) + 1];
+            for (int i = 0; i < current.length; i++) {
+                current[i] = min
+                        ? Math.min(previous[i], previous[i + half])
+                        : Math.max(previous[i], previous[i + half]);
+            }
+            table[level] = current;
+        }
+        return table;
+    }
+
+    private static long query(long[][] table, int lo, int hi, boolean min) {
+        int level = 31 - Integer.numberOfLeadingZeros(hi - lo + 1);
+        long left = table[level][lo];
+        long right = table[level][hi - (1 << level) + 1];
+        return min ? Math.min(left, right) : Math.max(left, right);
+    }
+}
@@ -0,0 +1,26 @@
+package com.converter.currencyconverterback.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+
+@Name(CacheLookupEvent.NAME)
+@Label("Cache Lookup")
+@Description("Lookup in one of the application caches")
+@Category("Currency Converter")
+@Enabled(false)
+@StackTrace(false)
+public class CacheLookupEvent extends jdk.jfr.Event {
+
+    public static final String NAME = "currencyconverter.CacheLookup";
+
+    @Label("Cache")
+    public String cache;
+
+    @Label("Hit")
+    public boolean hit;
+}
@@ -0,0 +1,26 @@
+package com.converter.currencyconverterback.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+
+@Name(ConversionEvent.NAME)
+@Label("Conversion")
+@Description("One conversion request, from the controller down to the computed result")
+@Category("Currency Converter")
+@Enabled(false)
+@StackTrace(false)
+public class ConversionEvent extends jdk.jfr.Event {
+
+    public static final String NAME = "currencyconverter.Conversion";
+
+    @Label("Currency From")
+    public String currencyFrom;
+
+    @Label("Currency To")
+    public String currencyTo;
+}
@@ -0,0 +1,119 @@
+package com.converter.currencyconverterback.jfr;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+
+/**
+ * Command-line tool that summarises a flight recording into latency breakdowns: conversions per currency pair,
+ * cache hit ratios, upstream fetches per status and the GC pauses that happened meanwhile.
+ * <p>
+ * Usage: {@code ./gradlew jfrSummary --args=recording.jfr}
+ */
+public final class RecordingSummary {
+
+    private static final String GC_PAUSE = "jdk.GCPhasePause";
+
+    private final Map<String, List<Duration>> conversions = new TreeMap<>();
+    private final Map<String, long[]> cacheLookups = new TreeMap<>();
+    private final Map<Integer, List<Duration>> fetches = new TreeMap<>();
+    private final List<Duration> gcPauses = new ArrayList<>();
+    private final List<String> swaps = new ArrayList<>();
+    private long fetchedBytes;
+
+    private RecordingSummary() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Usage: RecordingSummary <recording.jfr>");
+            System.exit(1);
+        }
+        System.out.print(summarize(Path.of(args[0])));
+    }
+
+    public static String summarize(Path recording) throws IOException {
+        RecordingSummary summary = new RecordingSummary();
+        try (RecordingFile file = new RecordingFile(recording)) {
+            while (file.hasMoreEvents()) {
+                summary.accept(file.readEvent());
+            }
+        }
+        return summary.render();
+    }
+
+    private void accept(RecordedEvent event) {
+        switch (event.getEventType().getName()) {
+            case ConversionEvent.NAME:
+                String pair = event.getString("currencyFrom") + "->" + event.getString("currencyTo");
+                conversions.computeIfAbsent(pair, key -> new ArrayList<>()).add(event.getDuration());
+                break;
+            case CacheLookupEvent.NAME:
+                long[] counts = cacheLookups.computeIfAbsent(event.getString("cache"), key -> new long[2]);
+                counts[event.getBoolean("hit") ? 0 : 1]++;
+                break;
+            case UpstreamFetchEvent.NAME:
+                fetches.computeIfAbsent(event.getInt("status"), key -> new ArrayList<>()).add(event.getDuration());
+                fetchedBytes += Math.max(0, event.getLong("bytes"));
+                break;
+            case SnapshotSwapEvent.NAME:
+                swaps.add(event.getStartTime() + " " + event.getString("previousTableNo") + " -> "
+                        + event.getString("tableNo") + " (" + event.getInt("rates") + " rates)");
+                break;
+            case GC_PAUSE:
+                gcPauses.add(event.getDuration());
+                break;
+            default:
+                break;
+        }
+    }
+
+    private String render() {
+        StringBuilder out = new StringBuilder();
+
+        out.append("Conversions\n");
+        conversions.forEach((pair, durations) -> out.append(latencyLine(pair, durations)));
+
+        out.append("Cache lookups\n");
+        cacheLookups.forEach((cache, counts) -> out.append(String.format("  %-24s hits=%d misses=%d hit-ratio=%.1f%%%n",
+                cache, counts[0], counts[1], 100.0 * counts[0] / (counts[0] + counts[1]))));
+
+        out.append("Upstream fetches\n");
+        fetches.forEach((status, durations) -> out.append(latencyLine("status " + status, durations)));
+        out.append(String.format("  %-24s %d%n", "bytes", fetchedBytes));
+
+        out.append("Snapshot swaps\n");
+        swaps.forEach(swap -> out.append("  ").append(swap).append('\n'));
+
+        out.append("GC pauses\n");
+        out.append(latencyLine("all", gcPauses));
+        return out.toString();
+    }
+
+    private static String latencyLine(String label, List<Duration> durations) {
+        if (durations.isEmpty()) {
+            return String.format("  %-24s count=0%n", label);
+        }
+        long[] micros = durations.stream().mapToLong(duration -> duration.toNanos() / 1_000).sorted().toArray();
+        long total = 0;
+        for (long value : micros) {
+            total += value;
+        }
+        return String.format("  %-24s count=%d total=%.3fms p50=%.3fms p95=%.3fms p99=%.3fms max=%.3fms%n",
+                label, micros.length, total / 1000.0, percentile(micros, 50) / 1000.0,
+                percentile(micros, 95) / 1000.0, percentile(micros, 99) / 1000.0, micros[micros.length - 1] / 1000.0);
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, index)];
+    }
+}
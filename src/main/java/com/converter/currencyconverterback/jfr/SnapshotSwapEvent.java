@@ -0,0 +1,29 @@
+package com.converter.currencyconverterback.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+
+@Name(SnapshotSwapEvent.NAME)
+@Label("Snapshot Swap")
+@Description("A newly fetched rate table replaced the one being served")
+@Category("Currency Converter")
+@Enabled(false)
+@StackTrace(false)
+public class SnapshotSwapEvent extends jdk.jfr.Event {
+
+    public static final String NAME = "currencyconverter.SnapshotSwap";
+
+    @Label("Previous Table")
+    public String previousTableNo;
+
+    @Label("Table")
+    public String tableNo;
+
+    @Label("Rates")
+    public int rates;
+}
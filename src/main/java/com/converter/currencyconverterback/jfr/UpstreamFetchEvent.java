@@ -0,0 +1,33 @@
+package com.converter.currencyconverterback.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+
+@Name(UpstreamFetchEvent.NAME)
+@Label("Upstream Fetch")
+@Description("HTTP call to a rate source such as the NBP API, until the response headers arrive")
+@Category("Currency Converter")
+@Enabled(false)
+@StackTrace(false)
+public class UpstreamFetchEvent extends jdk.jfr.Event {
+
+    public static final String NAME = "currencyconverter.UpstreamFetch";
+
+    @Label("URL")
+    public String url;
+
+    @Label("Status")
+    @Description("HTTP status code, or -1 if no response was received")
+    public int status;
+
+    @Label("Bytes")
+    @Description("Content-Length of the response, or -1 if not known up front")
+    @DataAmount
+    public long bytes;
+}
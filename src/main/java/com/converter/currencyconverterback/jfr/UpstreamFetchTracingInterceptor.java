@@ -0,0 +1,41 @@
+package com.converter.currencyconverterback.jfr;
+
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+
+
+/**
+ * Emits an {@link UpstreamFetchEvent} for every outgoing call. Passes straight through while the event is
+ * disabled.
+ */
+public class UpstreamFetchTracingInterceptor implements ClientHttpRequestInterceptor {
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        UpstreamFetchEvent event = new UpstreamFetchEvent();
+        if (!event.isEnabled()) {
+            return execution.execute(request, body);
+        }
+
+        event.begin();
+        event.status = -1;
+        event.bytes = -1;
+        try {
+            ClientHttpResponse response = execution.execute(request, body);
+            event.status = response.getStatusCode().value();
+            event.bytes = response.getHeaders().getContentLength();
+            return response;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.url = request.getURI().toString();
+                event.commit();
+            }
+        }
+    }
+}
@@ -2,49 +2,150 @@ package com.converter.currencyconverterback.nbp;
 
 import com.converter.currencyconverterback.domain.Currency;
 import com.converter.currencyconverterback.domain.Rates;
+import com.converter.currencyconverterback.domain.RatesSnapshot;
+import com.converter.currencyconverterback.exception.UpstreamUnavailableException;
+import com.converter.currencyconverterback.jfr.CacheLookupEvent;
+import com.converter.currencyconverterback.jfr.SnapshotSwapEvent;
+import com.converter.currencyconverterback.provider.RateSourceAggregator;
+import com.converter.currencyconverterback.upstream.FetchPolicy;
+import com.converter.currencyconverterback.upstream.FetchStats;
+import com.converter.currencyconverterback.upstream.HedgedFetcher;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service; // Import the Service annotation
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClient;
-import org.springframework.web.client.RestClientException;
+import java.time.LocalDate;
 import java.util.*;
-import java.util.stream.Collectors;
 
 
 @Service
 @Slf4j
 public class NbpClient {
+    // Name of the served table in cache lookup events
+    static final String SNAPSHOT_CACHE = "rates-snapshot";
+
     private final RestClient.Builder restClientBuilder;
     private final String nbpApiBaseUrl;
+    private final RateSourceAggregator rateSources;
+    private final HedgedFetcher<List<Currency>> historyFetcher;
+    // Loads run one at a time, so a slow fetch can never overwrite the table a later fetch installed
+    private final Object loadLock = new Object();
+    private volatile RatesSnapshot snapshot = RatesSnapshot.EMPTY;
 
     public NbpClient(
             RestClient.Builder restClientBuilder,
-            @Value("${nbp.api.base-url}") String nbpApiBaseUrl) {
+            @Value("${nbp.api.base-url}") String nbpApiBaseUrl,
+            RateSourceAggregator rateSources,
+            @Qualifier("nbpFetchPolicy") FetchPolicy fetchPolicy) {
         this.restClientBuilder = restClientBuilder;
         this.nbpApiBaseUrl = nbpApiBaseUrl;
+        this.rateSources = rateSources;
+        this.historyFetcher = new HedgedFetcher<>("nbp-history", fetchPolicy, Collections.emptyList());
     }
 
-    @Cacheable("currencies")
+    /**
+     * @return the rates of the served table; they are the same rates {@link #getSnapshot()} converts with
+     */
     public List<Rates> getAllCurrencies() {
-        RestClient restClient = restClientBuilder.baseUrl(nbpApiBaseUrl).build();
+        return getSnapshot().getRates();
+    }
+
+    /**
+     * Fetches the current table and serves it from now on, whether or not a table was loaded before.
+     */
+    public List<Rates> refreshCurrencies() {
+        return loadSnapshot().getRates();
+    }
+
+    /**
+     * @return the most recently fetched table, fetching it first if nothing has been loaded yet
+     */
+    public RatesSnapshot getSnapshot() {
+        RatesSnapshot current = snapshot;
+        recordLookup(!current.isEmpty());
+        if (!current.isEmpty()) {
+            return current;
+        }
+        synchronized (loadLock) {
+            // Callers that queued behind a cold load take its table instead of fetching again
+            current = snapshot;
+            return current.isEmpty() ? loadSnapshot() : current;
+        }
+    }
+
+    private static void recordLookup(boolean hit) {
+        CacheLookupEvent lookup = new CacheLookupEvent();
+        if (lookup.shouldCommit()) {
+            lookup.cache = SNAPSHOT_CACHE;
+            lookup.hit = hit;
+            lookup.commit();
+        }
+    }
+
+    public boolean hasSnapshot() {
+        return !snapshot.isEmpty();
+    }
+
+    /**
+     * Fetches every table C effective between the two dates, under the same deadline and breaker limits as the
+     * current table. NBP answers at most 93 days per request and responds with 404 when the range holds no table,
+     * which is returned as an empty list.
+     *
+     * @throws UpstreamUnavailableException if NBP did not answer in time or the breaker is open
+     */
+    public List<Currency> getTables(LocalDate from, LocalDate to) {
+        return historyFetcher.fetchOrThrow(() -> fetchTables(from, to));
+    }
+
+    private List<Currency> fetchTables(LocalDate from, LocalDate to) {
+        // The builder is a shared singleton; configure a copy so parallel fetches never see each other's settings
+        RestClient restClient = restClientBuilder.clone().baseUrl(nbpApiBaseUrl).build();
 
         try {
-            Currency[] boardsResponse = restClient.get()
-                    .uri("/tables/c?format=json")
+            Currency[] tables = restClient.get()
+                    .uri("/tables/c/{from}/{to}?format=json", from, to)
                     .retrieve()
                     .body(Currency[].class);
-
-            return Optional.ofNullable(boardsResponse)
+            return Optional.ofNullable(tables)
                     .map(Arrays::asList)
-                    .orElse(Collections.emptyList())
-                    .stream()
-                    .flatMap(currency -> currency.getRates().stream())
-                    .collect(Collectors.toList());
-
-        } catch (RestClientException e) {
-            log.error("Error while fetching currencies from NBP API: {}", e.getMessage(), e);
+                    .orElse(Collections.emptyList());
+        } catch (HttpClientErrorException.NotFound e) {
             return Collections.emptyList();
         }
     }
+
+    public List<FetchStats> getFetchStats() {
+        List<FetchStats> stats = new ArrayList<>(rateSources.getFetchStats());
+        stats.add(historyFetcher.getStats());
+        return stats;
+    }
+
+    private RatesSnapshot loadSnapshot() {
+        synchronized (loadLock) {
+            return installSnapshot(rateSources.fetchSnapshot());
+        }
+    }
+
+    private RatesSnapshot installSnapshot(RatesSnapshot fetched) {
+        RatesSnapshot previous = snapshot;
+        // Keep serving the same instance while the underlying tables are unchanged, and never step back to an
+        // older snapshot than the one being served
+        boolean unchanged = fetched.getTableNo() != null && fetched.getTableNo().equals(previous.getTableNo());
+        RatesSnapshot loaded = unchanged || fetched.getVersion() < previous.getVersion() ? previous : fetched;
+        snapshot = loaded;
+
+        // A swap is a change of table, not a new instance; a failed fetch serving the last good table is no swap
+        if (!Objects.equals(previous.getTableNo(), loaded.getTableNo())) {
+            SnapshotSwapEvent event = new SnapshotSwapEvent();
+            if (event.shouldCommit()) {
+                event.previousTableNo = previous.getTableNo();
+                event.tableNo = loaded.getTableNo();
+                event.rates = loaded.getRates().size();
+                event.commit();
+            }
+        }
+        return loaded;
+    }
 }
@@ -0,0 +1,75 @@
+package com.converter.currencyconverterback.nbp;
+
+import com.converter.currencyconverterback.domain.Currency;
+import com.converter.currencyconverterback.domain.Rates;
+import com.converter.currencyconverterback.provider.ProviderRates;
+import com.converter.currencyconverterback.provider.RateProvider;
+import com.converter.currencyconverterback.upstream.FetchPolicy;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+
+/**
+ * Table C buy/sell rates from the NBP API, quoted in PLN. The primary provider.
+ */
+@Component
+@Order(0)
+public class NbpRateProvider implements RateProvider {
+
+    private static final String PLN = "PLN";
+
+    private final RestClient.Builder restClientBuilder;
+    private final String nbpApiBaseUrl;
+    private final FetchPolicy fetchPolicy;
+
+    public NbpRateProvider(
+            RestClient.Builder restClientBuilder,
+            @Value("${nbp.api.base-url}") String nbpApiBaseUrl,
+            @Qualifier("nbpFetchPolicy") FetchPolicy fetchPolicy) {
+        this.restClientBuilder = restClientBuilder;
+        this.nbpApiBaseUrl = nbpApiBaseUrl;
+        this.fetchPolicy = fetchPolicy;
+    }
+
+    @Override
+    public String getName() {
+        return "nbp";
+    }
+
+    @Override
+    public FetchPolicy getFetchPolicy() {
+        return fetchPolicy;
+    }
+
+    @Override
+    public ProviderRates fetchRates() {
+        // The builder is a shared singleton; configure a copy so parallel fetches never see each other's settings
+        RestClient restClient = restClientBuilder.clone().baseUrl(nbpApiBaseUrl).build();
+
+        Currency[] boardsResponse = restClient.get()
+                .uri("/tables/c?format=json")
+                .retrieve()
+                .body(Currency[].class);
+
+        List<Currency> tables = Optional.ofNullable(boardsResponse)
+                .map(Arrays::asList)
+                .orElse(Collections.emptyList());
+        if (tables.isEmpty()) {
+            return ProviderRates.empty(PLN);
+        }
+
+        List<Rates> rates = tables.stream()
+                .flatMap(currency -> currency.getRates().stream())
+                .collect(Collectors.toList());
+        return new ProviderRates(PLN, tables.get(0).getNo(), tables.get(0).getEffectiveDate(), rates);
+    }
+}
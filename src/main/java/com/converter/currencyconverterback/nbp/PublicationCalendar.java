@@ -0,0 +1,72 @@
+package com.converter.currencyconverterback.nbp;
+
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.MonthDay;
+import java.util.Set;
+
+
+/**
+ * Polish business-day calendar. NBP publishes table C on every weekday that is not a statutory public holiday.
+ */
+@Component
+public class PublicationCalendar {
+
+    private static final Set<MonthDay> FIXED_HOLIDAYS = Set.of(
+            MonthDay.of(1, 1),   // New Year's Day
+            MonthDay.of(1, 6),   // Epiphany
+            MonthDay.of(5, 1),   // Labour Day
+            MonthDay.of(5, 3),   // Constitution Day
+            MonthDay.of(8, 15),  // Assumption of Mary
+            MonthDay.of(11, 1),  // All Saints' Day
+            MonthDay.of(11, 11), // Independence Day
+            MonthDay.of(12, 25), // Christmas Day
+            MonthDay.of(12, 26)  // Second Day of Christmas
+    );
+    private static final MonthDay CHRISTMAS_EVE = MonthDay.of(12, 24);
+    private static final int CHRISTMAS_EVE_HOLIDAY_SINCE = 2025;
+
+    public boolean isPublicationDay(LocalDate date) {
+        DayOfWeek dayOfWeek = date.getDayOfWeek();
+        return dayOfWeek != DayOfWeek.SATURDAY && dayOfWeek != DayOfWeek.SUNDAY && !isHoliday(date);
+    }
+
+    public boolean isHoliday(LocalDate date) {
+        MonthDay monthDay = MonthDay.from(date);
+        if (FIXED_HOLIDAYS.contains(monthDay)) {
+            return true;
+        }
+        if (CHRISTMAS_EVE.equals(monthDay) && date.getYear() >= CHRISTMAS_EVE_HOLIDAY_SINCE) {
+            return true;
+        }
+
+        LocalDate easter = easterSunday(date.getYear());
+        return date.equals(easter)
+                || date.equals(easter.plusDays(1))   // Easter Monday
+                || date.equals(easter.plusDays(49))  // Pentecost
+                || date.equals(easter.plusDays(60)); // Corpus Christi
+    }
+
+    /**
+     * Gregorian Easter Sunday (anonymous Gregorian algorithm).
+     */
+    static LocalDate easterSunday(int year) {
+        int a = year % 19;
+        int b = year / 100;
+        int c = year % 100;
+        int d = b / 4;
+        int e = b % 4;
+        int f = (b + 8) / 25;
+        int g = (b - f + 1) / 3;
+        int h = (19 * a + b - d - g + 15) % 30;
+        int i = c / 4;
+        int k = c % 4;
+        int l = (32 + 2 * e + 2 * i - h - k) % 7;
+        int m = (a + 11 * h + 22 * l) / 451;
+        int month = (h + l - 7 * m + 114) / 31;
+        int day = (h + l - 7 * m + 114) % 31 + 1;
+        return LocalDate.of(year, month, day);
+    }
+}
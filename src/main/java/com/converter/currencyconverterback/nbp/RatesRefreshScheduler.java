@@ -0,0 +1,99 @@
+package com.converter.currencyconverterback.nbp;
+
+import com.converter.currencyconverterback.domain.RatesSnapshot;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZonedDateTime;
+import java.util.Objects;
+
+
+/**
+ * Refreshes the cached rates around the time NBP publishes table C instead of on a fixed TTL.
+ * <p>
+ * On publication days the table is polled on every tick inside the publication window, and at the late-poll
+ * interval after it, until a table effective today (or with a new effective date) has been seen. Nothing is polled
+ * before the window, once today's table is in, or on weekends and public holidays. While no table has been loaded
+ * at all, every tick retries, whatever the day and time.
+ */
+@Component
+@Slf4j
+public class RatesRefreshScheduler {
+
+    private final NbpClient nbpClient;
+    private final PublicationCalendar calendar;
+    private final Clock clock;
+    private final LocalTime windowStart;
+    private final LocalTime windowEnd;
+    private final Duration latePollInterval;
+
+    private LocalDate publishedOn;
+    private ZonedDateTime lastPollAt;
+
+    public RatesRefreshScheduler(
+            NbpClient nbpClient,
+            PublicationCalendar calendar,
+            Clock clock,
+            @Value("${nbp.publication.window-start:07:45}") String windowStart,
+            @Value("${nbp.publication.window-end:09:00}") String windowEnd,
+            @Value("${nbp.publication.late-poll-interval-ms:1800000}") long latePollIntervalMs) {
+        this.nbpClient = nbpClient;
+        this.calendar = calendar;
+        this.clock = clock;
+        this.windowStart = LocalTime.parse(windowStart);
+        this.windowEnd = LocalTime.parse(windowEnd);
+        this.latePollInterval = Duration.ofMillis(latePollIntervalMs);
+    }
+
+    @Scheduled(
+            fixedDelayString = "${nbp.publication.poll-interval-ms:60000}",
+            initialDelayString = "${nbp.publication.poll-interval-ms:60000}")
+    public synchronized void pollForNewTable() {
+        ZonedDateTime now = ZonedDateTime.now(clock);
+        LocalDate today = now.toLocalDate();
+        if (!shouldPoll(now)) {
+            return;
+        }
+
+        lastPollAt = now;
+        // The table number also covers secondary rate providers, so a new NBP table is told apart by its date
+        String previousDate = nbpClient.hasSnapshot() ? nbpClient.getSnapshot().getEffectiveDate() : null;
+        nbpClient.refreshCurrencies();
+        if (!nbpClient.hasSnapshot()) {
+            return;
+        }
+        RatesSnapshot current = nbpClient.getSnapshot();
+
+        // The effective date is NBP's own; it is null while only secondary providers answer
+        String currentDate = current.getEffectiveDate();
+        boolean effectiveToday = today.toString().equals(currentDate);
+        boolean newTable = previousDate != null && currentDate != null && !previousDate.equals(currentDate);
+        if (effectiveToday || newTable) {
+            publishedOn = today;
+            log.info("Table {} effective {} is now served", current.getTableNo(), current.getEffectiveDate());
+        }
+    }
+
+    boolean shouldPoll(ZonedDateTime now) {
+        LocalDate today = now.toLocalDate();
+        LocalTime time = now.toLocalTime();
+
+        if (!nbpClient.hasSnapshot()) {
+            return true;
+        }
+        if (Objects.equals(today, publishedOn) || !calendar.isPublicationDay(today) || time.isBefore(windowStart)) {
+            return false;
+        }
+        return time.isBefore(windowEnd) || isLatePollDue(now);
+    }
+
+    private boolean isLatePollDue(ZonedDateTime now) {
+        return lastPollAt == null || !now.isBefore(lastPollAt.plus(latePollInterval));
+    }
+}
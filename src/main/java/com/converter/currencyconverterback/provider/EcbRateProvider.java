@@ -0,0 +1,108 @@
+package com.converter.currencyconverterback.provider;
+
+import com.converter.currencyconverterback.domain.Rates;
+import com.converter.currencyconverterback.upstream.FetchPolicy;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+
+/**
+ * Daily euro foreign exchange reference rates in the ECB eurofxref XML format. The feed publishes mid rates as
+ * units of currency per euro; they are turned into the price of one unit in EUR, used as both bid and ask.
+ */
+@Component
+@Order(1)
+@ConditionalOnProperty(name = "ecb.enabled", havingValue = "true", matchIfMissing = true)
+public class EcbRateProvider implements RateProvider {
+
+    private static final String EUR = "EUR";
+    private static final int PRICE_SCALE = 10;
+    private static final Locale POLISH = Locale.forLanguageTag("pl");
+
+    private final RestClient.Builder restClientBuilder;
+    private final String ecbApiUrl;
+    private final FetchPolicy fetchPolicy;
+
+    public EcbRateProvider(
+            RestClient.Builder restClientBuilder,
+            @Value("${ecb.api.url}") String ecbApiUrl,
+            @Qualifier("ecbFetchPolicy") FetchPolicy fetchPolicy) {
+        this.restClientBuilder = restClientBuilder;
+        this.ecbApiUrl = ecbApiUrl;
+        this.fetchPolicy = fetchPolicy;
+    }
+
+    @Override
+    public String getName() {
+        return "ecb";
+    }
+
+    @Override
+    public FetchPolicy getFetchPolicy() {
+        return fetchPolicy;
+    }
+
+    @Override
+    public ProviderRates fetchRates() {
+        String xml = restClientBuilder.clone().build().get()
+                .uri(ecbApiUrl)
+                .retrieve()
+                .body(String.class);
+        return xml == null ? ProviderRates.empty(EUR) : parse(xml);
+    }
+
+    static ProviderRates parse(String xml) {
+        Document document;
+        try {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setNamespaceAware(true);
+            factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+            document = factory.newDocumentBuilder().parse(new InputSource(new StringReader(xml)));
+        } catch (ParserConfigurationException | SAXException | IOException e) {
+            throw new IllegalStateException("Invalid ECB reference rates: " + e.getMessage(), e);
+        }
+
+        String date = null;
+        List<Rates> rates = new ArrayList<>();
+        NodeList cubes = document.getElementsByTagNameNS("*", "Cube");
+        for (int i = 0; i < cubes.getLength(); i++) {
+            Element cube = (Element) cubes.item(i);
+            if (cube.hasAttribute("time")) {
+                date = cube.getAttribute("time");
+            } else if (cube.hasAttribute("currency")) {
+                String code = cube.getAttribute("currency");
+                BigDecimal priceInEur = BigDecimal.ONE.divide(
+                        new BigDecimal(cube.getAttribute("rate")), PRICE_SCALE, RoundingMode.HALF_UP);
+                rates.add(new Rates(displayName(code), code, priceInEur, priceInEur));
+            }
+        }
+        return new ProviderRates(EUR, date, date, rates);
+    }
+
+    private static String displayName(String code) {
+        try {
+            return java.util.Currency.getInstance(code).getDisplayName(POLISH);
+        } catch (IllegalArgumentException e) {
+            return code;
+        }
+    }
+}
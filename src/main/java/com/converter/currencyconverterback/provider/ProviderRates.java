@@ -0,0 +1,35 @@
+package com.converter.currencyconverterback.provider;
+
+import com.converter.currencyconverterback.domain.Rates;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Optional;
+
+
+/**
+ * Rates published by one provider. Each bid and ask is the price of one unit of the currency expressed in
+ * {@code baseCurrency}, which is PLN for NBP and EUR for the ECB reference rates.
+ */
+@Getter
+@AllArgsConstructor
+public class ProviderRates {
+
+    private final String baseCurrency;
+    private final String tableNo;
+    private final String effectiveDate;
+    private final List<Rates> rates;
+
+    public static ProviderRates empty(String baseCurrency) {
+        return new ProviderRates(baseCurrency, null, null, List.of());
+    }
+
+    public Optional<Rates> findRate(String code) {
+        return rates.stream().filter(rate -> rate.getCode().equals(code)).findFirst();
+    }
+
+    public boolean isEmpty() {
+        return rates.isEmpty();
+    }
+}
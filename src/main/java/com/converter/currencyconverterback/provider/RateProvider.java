@@ -0,0 +1,23 @@
+package com.converter.currencyconverterback.provider;
+
+import com.converter.currencyconverterback.upstream.FetchPolicy;
+
+
+/**
+ * A source of exchange rates. Providers are consulted in their {@link org.springframework.core.annotation.Order}:
+ * a currency is taken from the first provider that has it, so earlier providers take precedence.
+ */
+public interface RateProvider {
+
+    String getName();
+
+    /**
+     * Deadline, hedging and circuit breaker limits applied to {@link #fetchRates()}.
+     */
+    FetchPolicy getFetchPolicy();
+
+    /**
+     * Fetches the latest rates. May block and may throw; callers bound it with the fetch policy.
+     */
+    ProviderRates fetchRates();
+}
@@ -0,0 +1,133 @@
+package com.converter.currencyconverterback.provider;
+
+import com.converter.currencyconverterback.domain.Rates;
+import com.converter.currencyconverterback.domain.RatesSnapshot;
+import com.converter.currencyconverterback.upstream.FetchStats;
+import com.converter.currencyconverterback.upstream.HedgedFetcher;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+
+/**
+ * Fetches every {@link RateProvider} in parallel, each through its own {@link HedgedFetcher}, and merges the
+ * results into one PLN-quoted {@link RatesSnapshot}.
+ * <p>
+ * Precedence follows provider order: a currency is taken from the first provider that has it. Rates quoted in
+ * another base currency are triangulated through that base, using its PLN bid/ask from an earlier provider or,
+ * failing that, the provider's own PLN rate. The snapshot's table number combines the tables of every provider
+ * that contributed, so it changes whenever any of the served rates do. Its effective date is the primary
+ * provider's only, and is null while the primary provider contributes nothing, so secondary rates published
+ * today never make the primary table look published.
+ */
+@Component
+@Slf4j
+public class RateSourceAggregator {
+
+    private static final String PLN = "PLN";
+    private static final int TRIANGULATED_SCALE = 6;
+
+    private final List<RateProvider> providers;
+    private final List<HedgedFetcher<ProviderRates>> fetchers;
+    private final ExecutorService executor;
+
+    public RateSourceAggregator(List<RateProvider> providers) {
+        this.providers = List.copyOf(providers);
+        this.fetchers = providers.stream()
+                .map(provider -> new HedgedFetcher<>(provider.getName(), provider.getFetchPolicy(),
+                        ProviderRates.empty(PLN)))
+                .collect(Collectors.toList());
+        AtomicInteger threadCount = new AtomicInteger();
+        // Never queues: each provider fetch starts at once, so its deadline bounds how long the caller waits
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "rate-providers-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public RatesSnapshot fetchSnapshot() {
+        List<CompletableFuture<ProviderRates>> pending = new ArrayList<>();
+        for (int i = 0; i < providers.size(); i++) {
+            RateProvider provider = providers.get(i);
+            HedgedFetcher<ProviderRates> fetcher = fetchers.get(i);
+            pending.add(CompletableFuture.supplyAsync(() -> fetcher.fetch(provider::fetchRates), executor));
+        }
+        return merge(pending.stream().map(CompletableFuture::join).collect(Collectors.toList()));
+    }
+
+    public List<FetchStats> getFetchStats() {
+        return fetchers.stream().map(HedgedFetcher::getStats).collect(Collectors.toList());
+    }
+
+    RatesSnapshot merge(List<ProviderRates> results) {
+        Map<String, Rates> merged = new LinkedHashMap<>();
+        StringBuilder tableNo = new StringBuilder();
+        String effectiveDate = null;
+
+        for (int i = 0; i < results.size(); i++) {
+            ProviderRates result = results.get(i);
+            if (result.isEmpty()) {
+                continue;
+            }
+
+            int before = merged.size();
+            if (PLN.equals(result.getBaseCurrency())) {
+                result.getRates().forEach(rate -> merged.putIfAbsent(rate.getCode(), rate));
+            } else if (!triangulate(result, merged)) {
+                log.warn("Skipping {} rates: no PLN rate for base currency {}",
+                        providers.get(i).getName(), result.getBaseCurrency());
+            }
+
+            if (merged.size() > before) {
+                if (tableNo.length() > 0) {
+                    tableNo.append('+');
+                }
+                tableNo.append(providers.get(i).getName()).append(':').append(result.getTableNo());
+                if (i == 0) {
+                    effectiveDate = result.getEffectiveDate();
+                }
+            }
+        }
+
+        if (merged.isEmpty()) {
+            return RatesSnapshot.EMPTY;
+        }
+        return new RatesSnapshot(tableNo.toString(), effectiveDate, new ArrayList<>(merged.values()));
+    }
+
+    private boolean triangulate(ProviderRates result, Map<String, Rates> merged) {
+        String base = result.getBaseCurrency();
+        Rates baseInPln = merged.get(base);
+        if (baseInPln == null) {
+            Rates plnInBase = result.findRate(PLN).orElse(null);
+            if (plnInBase == null) {
+                return false;
+            }
+            BigDecimal mid = BigDecimal.ONE.divide(plnInBase.getBid(), TRIANGULATED_SCALE, RoundingMode.HALF_UP);
+            baseInPln = new Rates(base, base, mid, mid);
+            merged.put(base, baseInPln);
+        }
+
+        for (Rates rate : result.getRates()) {
+            if (PLN.equals(rate.getCode()) || merged.containsKey(rate.getCode())) {
+                continue;
+            }
+            merged.put(rate.getCode(), new Rates(rate.getCurrency(), rate.getCode(),
+                    baseInPln.getBid().multiply(rate.getBid()).setScale(TRIANGULATED_SCALE, RoundingMode.HALF_UP),
+                    baseInPln.getAsk().multiply(rate.getAsk()).setScale(TRIANGULATED_SCALE, RoundingMode.HALF_UP)));
+        }
+        return true;
+    }
+}
@@ -0,0 +1,10 @@
+package com.converter.currencyconverterback.quote;
+
+import java.math.BigDecimal;
+
+
+/**
+ * A redeemed quote: the quoted amount and the rates that were locked for it.
+ */
+record LockedQuote(BigDecimal amount, String currencyFrom, String currencyTo, BigDecimal rateFrom, BigDecimal rateTo) {
+}
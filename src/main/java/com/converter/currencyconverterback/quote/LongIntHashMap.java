@@ -0,0 +1,128 @@
+package com.converter.currencyconverterback.quote;
+
+
+/**
+ * Open-addressing hash map from non-zero {@code long} keys to {@code int} values, stored in two flat arrays.
+ * Uses linear probing with backward-shift deletion, so it never accumulates tombstones.
+ */
+class LongIntHashMap {
+
+    static final int MISSING = -1;
+    private static final long EMPTY = 0L;
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+
+    LongIntHashMap(int expectedSize) {
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    int get(long key) {
+        int index = indexOf(key);
+        return index < 0 ? MISSING : values[index];
+    }
+
+    boolean containsKey(long key) {
+        return indexOf(key) >= 0;
+    }
+
+    void put(long key, int value) {
+        if (key == EMPTY) {
+            throw new IllegalArgumentException("Key must not be 0");
+        }
+        if ((size + 1) * 2 > keys.length) {
+            rehash(keys.length * 2);
+        }
+
+        int index = hash(key) & mask;
+        while (keys[index] != EMPTY) {
+            if (keys[index] == key) {
+                values[index] = value;
+                return;
+            }
+            index = (index + 1) & mask;
+        }
+        keys[index] = key;
+        values[index] = value;
+        size++;
+    }
+
+    void remove(long key) {
+        int gap = indexOf(key);
+        if (gap < 0) {
+            return;
+        }
+
+        // Shift back every following entry of the probe run that would become unreachable through the gap
+        int index = gap;
+        while (true) {
+            index = (index + 1) & mask;
+            if (keys[index] == EMPTY) {
+                break;
+            }
+            int home = hash(keys[index]) & mask;
+            boolean reachable = gap <= index ? (gap < home && home <= index) : (gap < home || home <= index);
+            if (!reachable) {
+                keys[gap] = keys[index];
+                values[gap] = values[index];
+                gap = index;
+            }
+        }
+        keys[gap] = EMPTY;
+        size--;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int capacity() {
+        return keys.length;
+    }
+
+    private int indexOf(long key) {
+        int index = hash(key) & mask;
+        while (keys[index] != EMPTY) {
+            if (keys[index] == key) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void rehash(int newCapacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(newCapacity);
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(2, expectedSize * 2 - 1)) << 1;
+        return Math.max(capacity, 4);
+    }
+
+    private static int hash(long key) {
+        // Murmur3 finalizer, so that sequential keys spread over the table too
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+}
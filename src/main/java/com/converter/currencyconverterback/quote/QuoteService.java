@@ -0,0 +1,85 @@
+package com.converter.currencyconverterback.quote;
+
+import com.converter.currencyconverterback.domain.Quote;
+import com.converter.currencyconverterback.domain.RatesSnapshot;
+import com.converter.currencyconverterback.exception.QuoteNotFoundException;
+import com.converter.currencyconverterback.nbp.NbpClient;
+import com.converter.currencyconverterback.service.CurrencyConversionService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+
+
+/**
+ * Issues quotes that lock the current bid/ask rates of a conversion for a short TTL, and redeems them at those
+ * rates even if a new table has been served in the meantime. A quote can be redeemed once.
+ */
+@Service
+@Slf4j
+public class QuoteService {
+
+    private final NbpClient nbpClient;
+    private final CurrencyConversionService currencyConversionService;
+    private final Clock clock;
+    private final QuoteStore store;
+
+    public QuoteService(
+            NbpClient nbpClient,
+            CurrencyConversionService currencyConversionService,
+            Clock clock,
+            @Value("${quotes.ttl-ms:30000}") long ttlMs,
+            @Value("${quotes.tick-ms:100}") long tickMs,
+            @Value("${quotes.segment-size:16384}") int segmentSize,
+            @Value("${quotes.max-live:2000000}") int maxLive) {
+        this.nbpClient = nbpClient;
+        this.currencyConversionService = currencyConversionService;
+        this.clock = clock;
+        this.store = new QuoteStore(ttlMs, tickMs, segmentSize, maxLive, clock.millis());
+    }
+
+    public Quote issueQuote(BigDecimal amount, String currencyFrom, String currencyTo) {
+        RatesSnapshot snapshot = nbpClient.getSnapshot();
+        BigDecimal result = currencyConversionService.convertCurrency(snapshot, amount, currencyFrom, currencyTo);
+        BigDecimal rateFrom = currencyConversionService.getExchangeRate(snapshot, currencyFrom, true);
+        BigDecimal rateTo = currencyConversionService.getExchangeRate(snapshot, currencyTo, false);
+
+        long now = clock.millis();
+        long id = store.issue(amount, currencyFrom, currencyTo, rateFrom, rateTo, now);
+        log.info("Issued quote for {} {} to {} at table {}", amount, currencyFrom, currencyTo, snapshot.getTableNo());
+        return new Quote(Long.toHexString(id), amount, currencyFrom, currencyTo, result,
+                Instant.ofEpochMilli(now + store.getTtlMillis()));
+    }
+
+    public BigDecimal redeemQuote(String quoteId) {
+        long id;
+        try {
+            id = Long.parseUnsignedLong(quoteId, 16);
+        } catch (NumberFormatException e) {
+            throw new QuoteNotFoundException("Quote not found or expired: " + quoteId);
+        }
+
+        LockedQuote quote = store.redeem(id, clock.millis());
+        if (quote == null) {
+            throw new QuoteNotFoundException("Quote not found or expired: " + quoteId);
+        }
+
+        BigDecimal result = currencyConversionService.convertAtRates(quote.amount(), quote.rateFrom(), quote.rateTo());
+        log.info("Redeemed quote {}: {} {} to {} = {}", quoteId, quote.amount(), quote.currencyFrom(),
+                quote.currencyTo(), result);
+        return result;
+    }
+
+    public QuoteStats getStats() {
+        return store.getStats();
+    }
+
+    @Scheduled(fixedDelayString = "${quotes.tick-ms:100}")
+    public void expireQuotes() {
+        store.advance(clock.millis());
+    }
+}
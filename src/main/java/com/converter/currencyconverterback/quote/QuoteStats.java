@@ -0,0 +1,18 @@
+package com.converter.currencyconverterback.quote;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+
+@Getter
+@AllArgsConstructor
+public class QuoteStats {
+
+    private final int liveQuotes;
+    private final int capacity;
+    private final int maxQuotes;
+    private final long issued;
+    private final long redeemed;
+    private final long expired;
+    private final long memoryBytes;
+}
@@ -0,0 +1,324 @@
+package com.converter.currencyconverterback.quote;
+
+import com.converter.currencyconverterback.exception.QuoteCapacityExceededException;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+
+/**
+ * Live quotes kept in parallel primitive arrays, one slot per quote, with a {@link LongIntHashMap} from quote id
+ * to slot. Expiry uses a hashed timing wheel whose buckets are intrusive doubly linked lists threaded through
+ * the slots, so issuing, redeeming and expiring a quote are all O(1) and no per-quote objects or timers exist.
+ * <p>
+ * The wheel spans more than one TTL, so every quote in the bucket of the tick being processed is due.
+ * Slots live in fixed-size segments that are added as needed, up to {@code maxQuotes}, and the id index is split
+ * into {@link #INDEX_SHARDS} tables, so growing never copies more than one segment's worth of data under the
+ * lock. Memory is {@link #BYTES_PER_SLOT} bytes per allocated slot plus 12 bytes per hash table entry.
+ */
+class QuoteStore {
+
+    static final int RATE_SCALE = 8;
+    static final int BYTES_PER_SLOT = 8 + 8 + 1 + 2 + 2 + 8 + 8 + 8 + 4 + 4;
+    static final int INDEX_SHARDS = 64;
+    private static final int NIL = -1;
+
+    private final long ttlMillis;
+    private final long tickMillis;
+    private final int maxQuotes;
+    private final Random random;
+
+    private final int[] wheel;
+    private final int wheelMask;
+    private long currentTick;
+
+    private final LongIntHashMap[] slotsById = new LongIntHashMap[INDEX_SHARDS];
+    private final List<String> codes = new ArrayList<>();
+    private final Map<String, Short> codeIndex = new HashMap<>();
+
+    private final int segmentShift;
+    private final int segmentMask;
+    private Segment[] segments = new Segment[0];
+
+    private int highWaterMark;
+    private int freeHead = NIL;
+    private int size;
+
+    private long issued;
+    private long redeemed;
+    private long expired;
+
+    QuoteStore(long ttlMillis, long tickMillis, int segmentSize, int maxQuotes, long nowMillis) {
+        this(ttlMillis, tickMillis, segmentSize, maxQuotes, nowMillis, new SecureRandom());
+    }
+
+    QuoteStore(long ttlMillis, long tickMillis, int segmentSize, int maxQuotes, long nowMillis, Random random) {
+        this.ttlMillis = ttlMillis;
+        this.tickMillis = tickMillis;
+        this.maxQuotes = maxQuotes;
+        this.random = random;
+
+        long ttlTicks = (ttlMillis + tickMillis - 1) / tickMillis;
+        int wheelSize = Integer.highestOneBit((int) Math.min(ttlTicks + 2, 1 << 29) * 2 - 1);
+        this.wheel = new int[wheelSize];
+        Arrays.fill(wheel, NIL);
+        this.wheelMask = wheelSize - 1;
+        this.currentTick = nowMillis / tickMillis;
+
+        int slotsPerSegment = Integer.highestOneBit(Math.max(segmentSize, 2) * 2 - 1);
+        this.segmentShift = Integer.numberOfTrailingZeros(slotsPerSegment);
+        this.segmentMask = slotsPerSegment - 1;
+        for (int i = 0; i < INDEX_SHARDS; i++) {
+            slotsById[i] = new LongIntHashMap(slotsPerSegment / INDEX_SHARDS);
+        }
+        addSegment();
+    }
+
+    long getTtlMillis() {
+        return ttlMillis;
+    }
+
+    /**
+     * Stores a quote and returns its id, which is random and never 0.
+     */
+    synchronized long issue(BigDecimal amount, String currencyFrom, String currencyTo,
+                            BigDecimal rateFrom, BigDecimal rateTo, long nowMillis) {
+        advance(nowMillis);
+        if (size >= maxQuotes) {
+            throw new QuoteCapacityExceededException("Too many live quotes, try again later");
+        }
+
+        // Everything that can fail is done before a slot is taken, so a rejected quote never leaks one
+        long unscaledAmount;
+        try {
+            unscaledAmount = amount.unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Amount is too large to quote");
+        }
+        if (amount.scale() > Byte.MAX_VALUE || amount.scale() < Byte.MIN_VALUE) {
+            throw new IllegalArgumentException("Amount is too precise to quote");
+        }
+        long scaledRateFrom = toScaled(rateFrom);
+        long scaledRateTo = toScaled(rateTo);
+        short codeFrom = intern(currencyFrom);
+        short codeTo = intern(currencyTo);
+
+        long id;
+        do {
+            id = random.nextLong();
+        } while (id == 0 || index(id).containsKey(id));
+
+        int slot = acquireSlot();
+        Segment segment = segments[slot >>> segmentShift];
+        int i = slot & segmentMask;
+        segment.ids[i] = id;
+        segment.amounts[i] = unscaledAmount;
+        segment.amountScales[i] = (byte) amount.scale();
+        segment.currenciesFrom[i] = codeFrom;
+        segment.currenciesTo[i] = codeTo;
+        segment.ratesFrom[i] = scaledRateFrom;
+        segment.ratesTo[i] = scaledRateTo;
+        segment.expiresAt[i] = nowMillis + ttlMillis;
+        link(slot, (int) (expiryTick(segment.expiresAt[i]) & wheelMask));
+
+        index(id).put(id, slot);
+        size++;
+        issued++;
+        return id;
+    }
+
+    /**
+     * Removes the quote and returns it, or returns null if it does not exist or has expired.
+     */
+    synchronized LockedQuote redeem(long id, long nowMillis) {
+        advance(nowMillis);
+        int slot = index(id).get(id);
+        if (slot == LongIntHashMap.MISSING) {
+            return null;
+        }
+        if (expiresAt(slot) <= nowMillis) {
+            release(slot);
+            expired++;
+            return null;
+        }
+
+        Segment segment = segments[slot >>> segmentShift];
+        int i = slot & segmentMask;
+        LockedQuote quote = new LockedQuote(
+                BigDecimal.valueOf(segment.amounts[i], segment.amountScales[i]),
+                codes.get(segment.currenciesFrom[i]),
+                codes.get(segment.currenciesTo[i]),
+                BigDecimal.valueOf(segment.ratesFrom[i], RATE_SCALE),
+                BigDecimal.valueOf(segment.ratesTo[i], RATE_SCALE));
+        release(slot);
+        redeemed++;
+        return quote;
+    }
+
+    /**
+     * Moves the wheel up to {@code nowMillis}, releasing every quote whose tick has passed.
+     */
+    synchronized void advance(long nowMillis) {
+        long nowTick = nowMillis / tickMillis;
+        if (nowTick - currentTick > wheel.length) {
+            // Every bucket is due; visit each of them once
+            currentTick = nowTick - wheel.length;
+        }
+        while (currentTick < nowTick) {
+            currentTick++;
+            int slot = wheel[(int) (currentTick & wheelMask)];
+            while (slot != NIL) {
+                int following = next(slot);
+                release(slot);
+                expired++;
+                slot = following;
+            }
+        }
+    }
+
+    synchronized QuoteStats getStats() {
+        long indexCapacity = 0;
+        for (LongIntHashMap shard : slotsById) {
+            indexCapacity += shard.capacity();
+        }
+        int capacity = segments.length << segmentShift;
+        long memory = (long) capacity * BYTES_PER_SLOT + indexCapacity * 12 + (long) wheel.length * 4;
+        return new QuoteStats(size, capacity, maxQuotes, issued, redeemed, expired, memory);
+    }
+
+    private LongIntHashMap index(long id) {
+        // Ids are random, so their top bits spread them evenly over the shards
+        return slotsById[(int) (id >>> 58)];
+    }
+
+    private long expiryTick(long expiresAtMillis) {
+        return (expiresAtMillis + tickMillis - 1) / tickMillis;
+    }
+
+    private int acquireSlot() {
+        if (freeHead != NIL) {
+            int slot = freeHead;
+            freeHead = next(slot);
+            return slot;
+        }
+        if (highWaterMark == segments.length << segmentShift) {
+            addSegment();
+        }
+        return highWaterMark++;
+    }
+
+    private void release(int slot) {
+        Segment segment = segments[slot >>> segmentShift];
+        int i = slot & segmentMask;
+        unlink(slot, (int) (expiryTick(segment.expiresAt[i]) & wheelMask));
+        index(segment.ids[i]).remove(segment.ids[i]);
+        segment.ids[i] = 0;
+        segment.next[i] = freeHead;
+        freeHead = slot;
+        size--;
+    }
+
+    private void link(int slot, int bucket) {
+        int head = wheel[bucket];
+        setNext(slot, head);
+        setPrevious(slot, NIL);
+        if (head != NIL) {
+            setPrevious(head, slot);
+        }
+        wheel[bucket] = slot;
+    }
+
+    private void unlink(int slot, int bucket) {
+        int previous = previous(slot);
+        int next = next(slot);
+        if (previous != NIL) {
+            setNext(previous, next);
+        } else {
+            wheel[bucket] = next;
+        }
+        if (next != NIL) {
+            setPrevious(next, previous);
+        }
+    }
+
+    private long expiresAt(int slot) {
+        return segments[slot >>> segmentShift].expiresAt[slot & segmentMask];
+    }
+
+    private int next(int slot) {
+        return segments[slot >>> segmentShift].next[slot & segmentMask];
+    }
+
+    private int previous(int slot) {
+        return segments[slot >>> segmentShift].previous[slot & segmentMask];
+    }
+
+    private void setNext(int slot, int next) {
+        segments[slot >>> segmentShift].next[slot & segmentMask] = next;
+    }
+
+    private void setPrevious(int slot, int previous) {
+        segments[slot >>> segmentShift].previous[slot & segmentMask] = previous;
+    }
+
+    private short intern(String code) {
+        return codeIndex.computeIfAbsent(code, key -> {
+            if (codes.size() > Short.MAX_VALUE) {
+                throw new IllegalArgumentException("Too many distinct currency codes");
+            }
+            codes.add(key);
+            return (short) (codes.size() - 1);
+        });
+    }
+
+    private static long toScaled(BigDecimal rate) {
+        try {
+            return rate.setScale(RATE_SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Rate cannot be locked exactly: " + rate);
+        }
+    }
+
+    private void addSegment() {
+        // Only the small array of segment references is copied; existing slots stay where they are
+        segments = Arrays.copyOf(segments, segments.length + 1);
+        segments[segments.length - 1] = new Segment(segmentMask + 1);
+    }
+
+    /**
+     * One fixed-size block of slots, stored column-wise.
+     */
+    private static final class Segment {
+
+        private final long[] ids;
+        private final long[] amounts;
+        private final byte[] amountScales;
+        private final short[] currenciesFrom;
+        private final short[] currenciesTo;
+        private final long[] ratesFrom;
+        private final long[] ratesTo;
+        private final long[] expiresAt;
+        private final int[] next;
+        private final int[] previous;
+
+        private Segment(int size) {
+            ids = new long[size];
+            amounts = new long[size];
+            amountScales = new byte[size];
+            currenciesFrom = new short[size];
+            currenciesTo = new short[size];
+            ratesFrom = new long[size];
+            ratesTo = new long[size];
+            expiresAt = new long[size];
+            next = new int[size];
+            previous = new int[size];
+        }
+    }
+}
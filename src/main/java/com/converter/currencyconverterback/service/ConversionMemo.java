@@ -0,0 +1,114 @@
+package com.converter.currencyconverterback.service;
+
+import com.converter.currencyconverterback.domain.RatesSnapshot;
+import com.converter.currencyconverterback.nbp.NbpClient;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Memoizes single-pair conversions of the current table, keyed by amount and currency pair. Entries are dropped
+ * as soon as a new table is served, and concurrent misses for the same key share one computation. Results are
+ * computed by {@link CurrencyConversionService#convertCurrency(RatesSnapshot, BigDecimal, String, String)}
+ * against the snapshot the key was built from, so they are identical to an uncached conversion of that table.
+ * Amounts are keyed by value, so {@code 100} and {@code 100.00} share an entry.
+ */
+@Component
+@Slf4j
+public class ConversionMemo {
+
+    private static final String CACHE_NAME = "conversion-results";
+    // LinkedHashMap entry, key String with its byte array, and a compact BigDecimal
+    private static final int ENTRY_OVERHEAD_BYTES = 56 + 40 + 40;
+
+    private final NbpClient nbpClient;
+    private final CurrencyConversionService currencyConversionService;
+    private final int maxEntries;
+    private final TableScopedCache<BigDecimal> results;
+    private final Map<String, CompletableFuture<BigDecimal>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    public ConversionMemo(
+            NbpClient nbpClient,
+            CurrencyConversionService currencyConversionService,
+            @Value("${conversion.memo.max-entries:4096}") int maxEntries) {
+        this.nbpClient = nbpClient;
+        this.currencyConversionService = currencyConversionService;
+        this.maxEntries = maxEntries;
+        this.results = new TableScopedCache<>(CACHE_NAME, maxEntries, (key, result) -> entryBytes(key));
+    }
+
+    public BigDecimal convert(BigDecimal amount, String currencyFrom, String currencyTo) {
+        log.info("Converting {} {} to {}", amount, currencyFrom, currencyTo);
+        BigDecimal result = lookup(amount, currencyFrom, currencyTo);
+        log.info("Conversion result: {}", result);
+        return result;
+    }
+
+    private BigDecimal lookup(BigDecimal amount, String currencyFrom, String currencyTo) {
+        RatesSnapshot snapshot = nbpClient.getSnapshot();
+        if (snapshot.getTableNo() == null || amount == null || currencyFrom == null || currencyTo == null) {
+            return currencyConversionService.convertCurrency(snapshot, amount, currencyFrom, currencyTo);
+        }
+
+        String key = amount.stripTrailingZeros().toPlainString() + '|' + currencyFrom + '|' + currencyTo;
+        BigDecimal cached = results.get(snapshot, key);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+
+        // In-flight keys carry the table number, so a request never joins a computation for another table
+        String flightKey = snapshot.getTableNo() + '|' + key;
+        CompletableFuture<BigDecimal> computation = new CompletableFuture<>();
+        CompletableFuture<BigDecimal> running = inFlight.putIfAbsent(flightKey, computation);
+        if (running != null) {
+            coalesced.increment();
+            return await(running);
+        }
+
+        misses.increment();
+        try {
+            BigDecimal result = currencyConversionService.convertCurrency(snapshot, amount, currencyFrom, currencyTo);
+            results.put(snapshot, key, result);
+            computation.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            computation.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(flightKey, computation);
+        }
+    }
+
+    public ConversionMemoStats getStats() {
+        return new ConversionMemoStats(results.size(), maxEntries, hits.sum(), misses.sum(), coalesced.sum(),
+                results.getWeight());
+    }
+
+    private static BigDecimal await(CompletableFuture<BigDecimal> computation) {
+        try {
+            return computation.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static long entryBytes(String key) {
+        return ENTRY_OVERHEAD_BYTES + key.length();
+    }
+}
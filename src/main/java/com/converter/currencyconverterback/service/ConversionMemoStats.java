@@ -0,0 +1,22 @@
+package com.converter.currencyconverterback.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+
+@Getter
+@AllArgsConstructor
+public class ConversionMemoStats {
+
+    private final int entries;
+    private final int maxEntries;
+    private final long hits;
+    private final long misses;
+    private final long coalesced;
+    private final long memoryBytes;
+
+    public double getHitRatio() {
+        long lookups = hits + misses + coalesced;
+        return lookups == 0 ? 0.0 : (double) (hits + coalesced) / lookups;
+    }
+}
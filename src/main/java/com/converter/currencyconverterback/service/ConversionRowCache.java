@@ -0,0 +1,62 @@
+package com.converter.currencyconverterback.service;
+
+import com.converter.currencyconverterback.domain.RatesSnapshot;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Keeps the serialized JSON of recently requested one-to-many conversion rows, so that common amounts are
+ * answered without converting or serializing again. Entries are keyed by table number and dropped as soon as
+ * a new table is served. Amounts are keyed by value: row values are rounded to a fixed scale, so {@code 100} and
+ * {@code 100.00} share a row.
+ */
+@Component
+public class ConversionRowCache {
+
+    private static final String CACHE_NAME = "conversion-rows";
+
+    private final CurrencyConversionService currencyConversionService;
+    private final ObjectMapper objectMapper;
+    private final TableScopedCache<byte[]> rows;
+
+    public ConversionRowCache(
+            CurrencyConversionService currencyConversionService,
+            ObjectMapper objectMapper,
+            @Value("${conversion.row-cache.max-entries:1024}") int maxEntries) {
+        this.currencyConversionService = currencyConversionService;
+        this.objectMapper = objectMapper;
+        this.rows = new TableScopedCache<>(CACHE_NAME, maxEntries);
+    }
+
+    public byte[] getSerializedRow(RatesSnapshot snapshot, BigDecimal amount, String currencyFrom, List<String> currenciesTo) {
+        if (snapshot.getTableNo() == null) {
+            return serialize(currencyConversionService.convertToAll(snapshot, amount, currencyFrom, currenciesTo));
+        }
+
+        String key = amount.stripTrailingZeros().toPlainString() + '|' + currencyFrom + '|'
+                + (currenciesTo == null ? "" : String.join(",", currenciesTo));
+        byte[] cached = rows.get(snapshot, key);
+        if (cached != null) {
+            return cached;
+        }
+
+        byte[] row = serialize(currencyConversionService.convertToAll(snapshot, amount, currencyFrom, currenciesTo));
+        rows.put(snapshot, key, row);
+        return row;
+    }
+
+    private byte[] serialize(Map<String, BigDecimal> row) {
+        try {
+            return objectMapper.writeValueAsBytes(row);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize conversion row", e);
+        }
+    }
+}
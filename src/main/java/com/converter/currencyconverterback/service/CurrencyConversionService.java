@@ -1,6 +1,7 @@
 package com.converter.currencyconverterback.service;
 
 import com.converter.currencyconverterback.domain.Rates;
+import com.converter.currencyconverterback.domain.RatesSnapshot;
 import com.converter.currencyconverterback.nbp.NbpClient;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -8,8 +9,9 @@ import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
 
 
 @Service
@@ -26,40 +28,115 @@ public class CurrencyConversionService {
         return nbpClient.getAllCurrencies();
     }
 
+    /**
+     * Converts against the table currently served by {@link NbpClient#getSnapshot()}.
+     */
     public BigDecimal convertCurrency(BigDecimal amount, String currencyFrom, String currencyTo) {
-        if (amount == null || amount.compareTo(BigDecimal.ZERO) < 0) {
-            throw new IllegalArgumentException("Amount must be a positive number");
-        }
-        
+        validateAmount(amount);
+
         if (currencyFrom == null || currencyTo == null) {
             throw new IllegalArgumentException("Currency codes cannot be null");
         }
 
         log.info("Converting {} {} to {}", amount, currencyFrom, currencyTo);
 
-        BigDecimal rateFrom = getExchangeRate(currencyFrom, true);
-        BigDecimal rateTo = getExchangeRate(currencyTo, false);
+        BigDecimal result = convertCurrency(nbpClient.getSnapshot(), amount, currencyFrom, currencyTo);
 
-        BigDecimal result = amount.multiply(rateFrom).divide(rateTo, DECIMAL_SCALE, RoundingMode.HALF_UP);
-        
         log.info("Conversion result: {}", result);
         return result;
     }
 
-    private BigDecimal getExchangeRate(String currencyCode, boolean isBid) {
-        if (PLN.equals(currencyCode)) {
-            return BigDecimal.ONE;
+    /**
+     * Same as {@link #convertCurrency(BigDecimal, String, String)}, but against the given table.
+     */
+    public BigDecimal convertCurrency(RatesSnapshot snapshot, BigDecimal amount, String currencyFrom, String currencyTo) {
+        validateAmount(amount);
+
+        if (currencyFrom == null || currencyTo == null) {
+            throw new IllegalArgumentException("Currency codes cannot be null");
         }
 
-        Optional<Rates> rateOptional = nbpClient.getAllCurrencies().stream()
-                .filter(rates -> rates.getCode().equals(currencyCode))
-                .findFirst();
+        BigDecimal rateFrom = getExchangeRate(snapshot, currencyFrom, true);
+        BigDecimal rateTo = getExchangeRate(snapshot, currencyTo, false);
+        return convertAtRates(amount, rateFrom, rateTo);
+    }
+
+    /**
+     * Applies a bid rate of the source currency and an ask rate of the target currency, both in PLN.
+     */
+    public BigDecimal convertAtRates(BigDecimal amount, BigDecimal rateFrom, BigDecimal rateTo) {
+        return amount.multiply(rateFrom).divide(rateTo, DECIMAL_SCALE, RoundingMode.HALF_UP);
+    }
 
-        if (rateOptional.isEmpty()) {
-            throw new IllegalArgumentException("Currency not found: " + currencyCode);
+    /**
+     * Converts one amount into many currencies against a single table. With no target currencies given, the row
+     * covers PLN and every currency in the table except the source one. Each value is rounded exactly like
+     * {@link #convertCurrency(BigDecimal, String, String)}.
+     */
+    public Map<String, BigDecimal> convertToAll(
+            RatesSnapshot snapshot, BigDecimal amount, String currencyFrom, List<String> currenciesTo) {
+        validateAmount(amount);
+
+        if (currencyFrom == null) {
+            throw new IllegalArgumentException("Currency codes cannot be null");
         }
 
-        Rates rate = rateOptional.get();
+        log.info("Converting {} {} to {}", amount, currencyFrom,
+                currenciesTo == null || currenciesTo.isEmpty() ? "all currencies" : currenciesTo);
+
+        BigDecimal base = amount.multiply(getExchangeRate(snapshot, currencyFrom, true));
+        Map<String, BigDecimal> results = new LinkedHashMap<>();
+
+        if (currenciesTo == null || currenciesTo.isEmpty()) {
+            if (!PLN.equals(currencyFrom)) {
+                results.put(PLN, base.divide(BigDecimal.ONE, DECIMAL_SCALE, RoundingMode.HALF_UP));
+            }
+            for (Rates rate : snapshot.getRates()) {
+                if (!rate.getCode().equals(currencyFrom)) {
+                    results.put(rate.getCode(), base.divide(rate.getAsk(), DECIMAL_SCALE, RoundingMode.HALF_UP));
+                }
+            }
+        } else {
+            for (String currencyTo : currenciesTo) {
+                BigDecimal rateTo = getExchangeRate(snapshot, currencyTo, false);
+                results.put(currencyTo, base.divide(rateTo, DECIMAL_SCALE, RoundingMode.HALF_UP));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Checks the arguments of {@link #convertToAll(RatesSnapshot, BigDecimal, String, List)} against the table
+     * without converting anything.
+     *
+     * @throws IllegalArgumentException if the amount is invalid or a currency is not in the table
+     */
+    public void validateConversion(RatesSnapshot snapshot, BigDecimal amount, String currencyFrom, List<String> currenciesTo) {
+        validateAmount(amount);
+
+        if (currencyFrom == null) {
+            throw new IllegalArgumentException("Currency codes cannot be null");
+        }
+
+        getExchangeRate(snapshot, currencyFrom, true);
+        if (currenciesTo != null) {
+            currenciesTo.forEach(currencyTo -> getExchangeRate(snapshot, currencyTo, false));
+        }
+    }
+
+    public BigDecimal getExchangeRate(RatesSnapshot snapshot, String currencyCode, boolean isBid) {
+        if (PLN.equals(currencyCode)) {
+            return BigDecimal.ONE;
+        }
+
+        Rates rate = snapshot.findRate(currencyCode)
+                .orElseThrow(() -> new IllegalArgumentException("Currency not found: " + currencyCode));
         return isBid ? rate.getBid() : rate.getAsk();
     }
+
+    private void validateAmount(BigDecimal amount) {
+        if (amount == null || amount.compareTo(BigDecimal.ZERO) < 0) {
+            throw new IllegalArgumentException("Amount must be a positive number");
+        }
+    }
 }
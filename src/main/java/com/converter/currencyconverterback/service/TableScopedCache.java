@@ -0,0 +1,105 @@
+package com.converter.currencyconverterback.service;
+
+import com.converter.currencyconverterback.domain.RatesSnapshot;
+import com.converter.currencyconverterback.jfr.CacheLookupEvent;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.ToLongBiFunction;
+
+
+/**
+ * Bounded LRU of values computed from one rate table. All entries belong to the newest table seen so far and are
+ * dropped as soon as a newer table is looked up. Requests still holding an older snapshot during the swap neither
+ * hit nor fill the cache, so they cannot take it back to the old table.
+ */
+class TableScopedCache<V> {
+
+    private final String name;
+    private final ToLongBiFunction<String, V> weigher;
+    private final Map<String, V> entries;
+    private String tableNo;
+    private long tableVersion;
+    private long weight;
+
+    TableScopedCache(String name, int maxEntries) {
+        this(name, maxEntries, (key, value) -> 0);
+    }
+
+    /**
+     * @param weigher estimated memory of one entry, summed into {@link #getWeight()}
+     */
+    TableScopedCache(String name, int maxEntries, ToLongBiFunction<String, V> weigher) {
+        this.name = name;
+        this.weigher = weigher;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+                if (size() > maxEntries) {
+                    weight -= weigher.applyAsLong(eldest.getKey(), eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * @return the value cached for the key in this table, or null on a miss or when the table is older than the
+     * one cached
+     */
+    V get(RatesSnapshot snapshot, String key) {
+        CacheLookupEvent lookup = new CacheLookupEvent();
+        lookup.begin();
+        V cached;
+        synchronized (this) {
+            cached = admit(snapshot) ? entries.get(key) : null;
+        }
+        lookup.end();
+        if (lookup.shouldCommit()) {
+            lookup.cache = name;
+            lookup.hit = cached != null;
+            lookup.commit();
+        }
+        return cached;
+    }
+
+    /**
+     * Caches the value unless the table is older than the one cached.
+     */
+    synchronized void put(RatesSnapshot snapshot, String key, V value) {
+        if (!admit(snapshot)) {
+            return;
+        }
+        V previous = entries.put(key, value);
+        if (previous != null) {
+            weight -= weigher.applyAsLong(key, previous);
+        }
+        weight += weigher.applyAsLong(key, value);
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    synchronized long getWeight() {
+        return weight;
+    }
+
+    private boolean admit(RatesSnapshot snapshot) {
+        if (snapshot.getTableNo() == null) {
+            return false;
+        }
+        if (snapshot.getTableNo().equals(tableNo)) {
+            return true;
+        }
+        if (snapshot.getVersion() < tableVersion) {
+            return false;
+        }
+        entries.clear();
+        weight = 0;
+        tableNo = snapshot.getTableNo();
+        tableVersion = snapshot.getVersion();
+        return true;
+    }
+}
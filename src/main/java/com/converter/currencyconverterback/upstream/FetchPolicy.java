@@ -0,0 +1,22 @@
+package com.converter.currencyconverterback.upstream;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Duration;
+
+
+/**
+ * Limits applied to a single upstream source: the overall deadline for one fetch, the hedge delay used until
+ * enough latency samples have been observed, and the circuit breaker thresholds.
+ */
+@Getter
+@AllArgsConstructor
+public class FetchPolicy {
+
+    private final Duration deadline;
+    private final Duration initialHedgeDelay;
+    private final Duration minHedgeDelay;
+    private final int failureThreshold;
+    private final Duration openDuration;
+}
@@ -0,0 +1,21 @@
+package com.converter.currencyconverterback.upstream;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+
+@Getter
+@AllArgsConstructor
+public class FetchStats {
+
+    private final String source;
+    private final CircuitBreaker.State breakerState;
+    private final int consecutiveFailures;
+    private final long requests;
+    private final long hedges;
+    private final long hedgeWins;
+    private final long failures;
+    private final long timeouts;
+    private final long shortCircuits;
+    private final long p95Millis;
+}
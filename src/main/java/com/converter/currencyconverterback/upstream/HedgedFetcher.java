@@ -0,0 +1,154 @@
+package com.converter.currencyconverterback.upstream;
+
+import com.converter.currencyconverterback.exception.UpstreamUnavailableException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Clock;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+
+/**
+ * Latency-bounded wrapper around a blocking upstream call.
+ * <p>
+ * Every fetch goes through a {@link CircuitBreaker}. If the first attempt has not answered within the observed
+ * p95 latency a second, hedged attempt is started and whichever succeeds first wins. When the overall deadline
+ * passes, the call fails or the breaker is open, the caller gets the last good value instead of waiting, or an
+ * {@link UpstreamUnavailableException} when it asked for {@link #fetchOrThrow(Supplier)}.
+ */
+@Slf4j
+public class HedgedFetcher<T> {
+
+    private static final double HEDGE_PERCENTILE = 95.0;
+
+    private final String name;
+    private final FetchPolicy policy;
+    private final CircuitBreaker breaker;
+    private final LatencyTracker latencies = new LatencyTracker(128);
+    private final ExecutorService executor;
+    private final AtomicReference<T> lastGood;
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong hedges = new AtomicLong();
+    private final AtomicLong hedgeWins = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong shortCircuits = new AtomicLong();
+
+    public HedgedFetcher(String name, FetchPolicy policy, T initialValue) {
+        this(name, policy, initialValue, Clock.systemUTC());
+    }
+
+    HedgedFetcher(String name, FetchPolicy policy, T initialValue, Clock clock) {
+        this.name = name;
+        this.policy = policy;
+        this.breaker = new CircuitBreaker(policy.getFailureThreshold(), policy.getOpenDuration(), clock);
+        this.lastGood = new AtomicReference<>(initialValue);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "fetch-" + name + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * @return the fresh value, or the last good one if the fetch failed, timed out or was short-circuited
+     */
+    public T fetch(Supplier<T> call) {
+        try {
+            return fetchOrThrow(call);
+        } catch (UpstreamUnavailableException e) {
+            log.warn("{}, serving last good data", e.getMessage());
+            return lastGood.get();
+        }
+    }
+
+    /**
+     * Same as {@link #fetch(Supplier)}, for callers that have no meaningful fallback value.
+     *
+     * @throws UpstreamUnavailableException if the fetch failed, timed out or was short-circuited
+     */
+    public T fetchOrThrow(Supplier<T> call) {
+        requests.incrementAndGet();
+        if (!breaker.tryAcquire()) {
+            shortCircuits.incrementAndGet();
+            throw new UpstreamUnavailableException("Circuit breaker for " + name + " is open");
+        }
+
+        long deadlineMillis = policy.getDeadline().toMillis();
+        CompletableFuture<Attempt<T>> result = new CompletableFuture<>();
+        AtomicInteger outstanding = new AtomicInteger();
+        launch(call, result, outstanding, false);
+
+        long hedgeDelay = hedgeDelayMillis();
+        if (hedgeDelay < deadlineMillis) {
+            CompletableFuture.delayedExecutor(hedgeDelay, TimeUnit.MILLISECONDS, executor).execute(() -> {
+                if (!result.isDone()) {
+                    hedges.incrementAndGet();
+                    launch(call, result, outstanding, true);
+                }
+            });
+        }
+
+        try {
+            Attempt<T> winner = result.get(deadlineMillis, TimeUnit.MILLISECONDS);
+            if (winner.hedged()) {
+                hedgeWins.incrementAndGet();
+            }
+            breaker.onSuccess();
+            lastGood.set(winner.value());
+            return winner.value();
+        } catch (TimeoutException e) {
+            timeouts.incrementAndGet();
+            breaker.onFailure();
+            throw new UpstreamUnavailableException("Fetch from " + name + " did not finish within " + deadlineMillis + " ms");
+        } catch (ExecutionException e) {
+            failures.incrementAndGet();
+            breaker.onFailure();
+            log.error("Error while fetching from {}: {}", name, e.getCause().getMessage(), e.getCause());
+            throw new UpstreamUnavailableException("Fetch from " + name + " failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            breaker.onFailure();
+            throw new UpstreamUnavailableException("Fetch from " + name + " was interrupted");
+        }
+    }
+
+    public FetchStats getStats() {
+        return new FetchStats(name, breaker.getState(), breaker.getConsecutiveFailures(), requests.get(),
+                hedges.get(), hedgeWins.get(), failures.get(), timeouts.get(), shortCircuits.get(),
+                latencies.percentile(HEDGE_PERCENTILE));
+    }
+
+    private void launch(Supplier<T> call, CompletableFuture<Attempt<T>> result, AtomicInteger outstanding, boolean hedge) {
+        outstanding.incrementAndGet();
+        long start = System.nanoTime();
+        CompletableFuture.supplyAsync(call, executor).whenComplete((value, ex) -> {
+            if (ex == null) {
+                latencies.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                result.complete(new Attempt<>(value, hedge));
+            } else if (outstanding.decrementAndGet() == 0) {
+                result.completeExceptionally(ex instanceof CompletionException ? ex.getCause() : ex);
+            }
+        });
+    }
+
+    private long hedgeDelayMillis() {
+        long p95 = latencies.percentile(HEDGE_PERCENTILE);
+        long delay = p95 < 0 ? policy.getInitialHedgeDelay().toMillis() : p95;
+        return Math.max(delay, policy.getMinHedgeDelay().toMillis());
+    }
+
+    private record Attempt<T>(T value, boolean hedged) {
+    }
+}
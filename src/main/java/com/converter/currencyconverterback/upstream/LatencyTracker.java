@@ -0,0 +1,42 @@
+package com.converter.currencyconverterback.upstream;
+
+import java.util.Arrays;
+
+
+/**
+ * Keeps the most recent successful call latencies in a ring buffer so that percentiles follow the current
+ * behaviour of the upstream rather than its whole history.
+ */
+class LatencyTracker {
+
+    private static final int MIN_SAMPLES = 5;
+
+    private final long[] samples;
+    private int next;
+    private int count;
+
+    LatencyTracker(int capacity) {
+        this.samples = new long[capacity];
+    }
+
+    synchronized void record(long millis) {
+        samples[next] = millis;
+        next = (next + 1) % samples.length;
+        if (count < samples.length) {
+            count++;
+        }
+    }
+
+    /**
+     * @return the requested percentile in milliseconds, or -1 while there are too few samples to trust it
+     */
+    synchronized long percentile(double percentile) {
+        if (count < MIN_SAMPLES) {
+            return -1;
+        }
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * count) - 1;
+        return sorted[Math.max(0, Math.min(index, count - 1))];
+    }
+}
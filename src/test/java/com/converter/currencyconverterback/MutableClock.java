@@ -0,0 +1,48 @@
+package com.converter.currencyconverterback;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+
+
+/**
+ * Test clock that only moves when told to.
+ */
+public class MutableClock extends Clock {
+
+    private final ZoneId zone;
+    private Instant now;
+
+    public MutableClock(String instant) {
+        this(Instant.parse(instant), ZoneId.of("Europe/Warsaw"));
+    }
+
+    public MutableClock(Instant now, ZoneId zone) {
+        this.now = now;
+        this.zone = zone;
+    }
+
+    public void advance(Duration duration) {
+        now = now.plus(duration);
+    }
+
+    public void set(Instant instant) {
+        now = instant;
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+        return new MutableClock(now, zone);
+    }
+
+    @Override
+    public Instant instant() {
+        return now;
+    }
+}
@@ -1,7 +1,10 @@
 package com.converter.currencyconverterback.controller;
 
 import com.converter.currencyconverterback.domain.Rates;
+import com.converter.currencyconverterback.domain.RatesSnapshot;
 import com.converter.currencyconverterback.nbp.NbpClient;
+import com.converter.currencyconverterback.service.ConversionMemo;
+import com.converter.currencyconverterback.service.ConversionRowCache;
 import com.converter.currencyconverterback.service.CurrencyConversionService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,6 +19,10 @@ import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -33,6 +40,12 @@ class CurrencyControllerTest {
     @MockBean
     private CurrencyConversionService currencyConversionService;
 
+    @MockBean
+    private ConversionRowCache conversionRowCache;
+
+    @MockBean
+    private ConversionMemo conversionMemo;
+
     @Test
     void shouldGetAllCurrencies() throws Exception {
         // given
@@ -56,7 +69,7 @@ class CurrencyControllerTest {
     void shouldConvertCurrency() throws Exception {
         // given
         BigDecimal expectedResult = new BigDecimal("25.00");
-        when(currencyConversionService.convertCurrency(
+        when(conversionMemo.convert(
                 any(BigDecimal.class),
                 eq("PLN"),
                 eq("USD")
@@ -76,7 +89,7 @@ class CurrencyControllerTest {
     void shouldHandleDecimalAmounts() throws Exception {
         // given
         BigDecimal expectedResult = new BigDecimal("24.97");
-        when(currencyConversionService.convertCurrency(
+        when(conversionMemo.convert(
                 any(BigDecimal.class),
                 eq("PLN"),
                 eq("USD")
@@ -104,7 +117,7 @@ class CurrencyControllerTest {
     @Test
     void shouldReturnBadRequestWhenCurrencyNotFound() throws Exception {
         // given
-        when(currencyConversionService.convertCurrency(
+        when(conversionMemo.convert(
                 any(BigDecimal.class),
                 eq("XYZ"),
                 eq("USD")
@@ -118,4 +131,56 @@ class CurrencyControllerTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.message").value("Currency not found: XYZ"));
     }
+
+    @Test
+    void shouldConvertToAllCurrenciesWithETag() throws Exception {
+        // given
+        RatesSnapshot snapshot = new RatesSnapshot("002/C/NBP/2024", "2024-01-03", List.of());
+        when(nbpClient.getSnapshot()).thenReturn(snapshot);
+        when(conversionRowCache.getSerializedRow(eq(snapshot), any(BigDecimal.class), eq("PLN"), isNull()))
+                .thenReturn("{\"USD\":25.00,\"EUR\":22.73}".getBytes());
+
+        // when and then
+        mockMvc.perform(get("/v1/results")
+                        .param("amount", "100.00")
+                        .param("currencyFrom", "PLN"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().string("ETag", "\"002/C/NBP/2024\""))
+                .andExpect(jsonPath("$.USD").value(25.00))
+                .andExpect(jsonPath("$.EUR").value(22.73));
+    }
+
+    @Test
+    void shouldReturnNotModifiedWhenTableIsUnchanged() throws Exception {
+        // given
+        RatesSnapshot snapshot = new RatesSnapshot("002/C/NBP/2024", "2024-01-03", List.of());
+        when(nbpClient.getSnapshot()).thenReturn(snapshot);
+
+        // when and then
+        mockMvc.perform(get("/v1/results")
+                        .param("amount", "100.00")
+                        .param("currencyFrom", "PLN")
+                        .header("If-None-Match", "\"002/C/NBP/2024\""))
+                .andExpect(status().isNotModified());
+        verify(conversionRowCache, never()).getSerializedRow(any(), any(), any(), any());
+    }
+
+    @Test
+    void shouldRejectInvalidRequestEvenWhenTableIsUnchanged() throws Exception {
+        // given
+        RatesSnapshot snapshot = new RatesSnapshot("002/C/NBP/2024", "2024-01-03", List.of());
+        when(nbpClient.getSnapshot()).thenReturn(snapshot);
+        doThrow(new IllegalArgumentException("Currency not found: XYZ"))
+                .when(currencyConversionService).validateConversion(eq(snapshot), any(BigDecimal.class), eq("XYZ"), isNull());
+
+        // when and then
+        mockMvc.perform(get("/v1/results")
+                        .param("amount", "100.00")
+                        .param("currencyFrom", "XYZ")
+                        .header("If-None-Match", "\"002/C/NBP/2024\""))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Currency not found: XYZ"));
+        verify(conversionRowCache, never()).getSerializedRow(any(), any(), any(), any());
+    }
 }
@@ -0,0 +1,228 @@
+package com.converter.currencyconverterback.history;
+
+import com.converter.currencyconverterback.MutableClock;
+import com.converter.currencyconverterback.domain.Currency;
+import com.converter.currencyconverterback.domain.RangeSummary;
+import com.converter.currencyconverterback.domain.RatePoint;
+import com.converter.currencyconverterback.domain.Rates;
+import com.converter.currencyconverterback.exception.HistoryLoadingException;
+import com.converter.currencyconverterback.exception.UpstreamUnavailableException;
+import com.converter.currencyconverterback.nbp.NbpClient;
+import com.converter.currencyconverterback.nbp.PublicationCalendar;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+
+@ExtendWith(MockitoExtension.class)
+class HistoricalRatesServiceTest {
+
+    @Mock
+    private NbpClient nbpClient;
+
+    private MutableClock clock;
+    private HistoricalRatesService service;
+
+    @BeforeEach
+    void setUp() {
+        // Wednesday 2024-07-03, 12:00 in Warsaw
+        clock = new MutableClock("2024-07-03T10:00:00Z");
+        service = new HistoricalRatesService(nbpClient, new PublicationCalendar(), clock, Duration.ofMinutes(5).toMillis(), 400);
+        // Stub of NBP's date-range API: one table per business day, USD bid rising by 0.0010 a day
+        lenient().when(nbpClient.getTables(any(), any()))
+                .thenAnswer(invocation -> tables(invocation.getArgument(0), invocation.getArgument(1)));
+    }
+
+    private List<Currency> tables(LocalDate from, LocalDate to) {
+        PublicationCalendar calendar = new PublicationCalendar();
+        List<Currency> tables = new ArrayList<>();
+        for (LocalDate date = from; !date.isAfter(to) && !date.isAfter(LocalDate.now(clock)); date = date.plusDays(1)) {
+            if (calendar.isPublicationDay(date)) {
+                BigDecimal bid = new BigDecimal("3.9000").add(BigDecimal.valueOf(date.getDayOfYear(), 4));
+                tables.add(new Currency("C", "no", null, date.toString(),
+                        List.of(new Rates("US Dollar", "USD", bid, bid.add(new BigDecimal("0.0800"))))));
+            }
+        }
+        return tables;
+    }
+
+    @Test
+    void shouldLoadRangeInChunksOfAtMost93Days() {
+        // when
+        service.getSummary("USD", LocalDate.of(2024, 1, 1), LocalDate.of(2024, 6, 30));
+
+        // then
+        verify(nbpClient).getTables(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 4, 2));
+        verify(nbpClient).getTables(LocalDate.of(2024, 4, 3), LocalDate.of(2024, 6, 30));
+        verifyNoMoreInteractions(nbpClient);
+    }
+
+    @Test
+    void shouldSummarizeRange() {
+        // when
+        RangeSummary summary = service.getSummary("USD", LocalDate.of(2024, 6, 3), LocalDate.of(2024, 6, 9));
+
+        // then
+        assertEquals(5, summary.getTables());
+        assertEquals(new BigDecimal("3.9155"), summary.getMinBid()); // June 3rd is day 155
+        assertEquals(new BigDecimal("3.9159"), summary.getMaxBid());
+        assertEquals(new BigDecimal("3.9157"), summary.getAvgBid());
+        assertEquals(new BigDecimal("3.9959"), summary.getLastAsk());
+        assertEquals(LocalDate.of(2024, 6, 7), summary.getLastDate());
+    }
+
+    @Test
+    void shouldServeLoadedRangeFromMemoryAndLoadOnlyMissingDays() {
+        // given
+        service.getSeries("USD", LocalDate.of(2024, 6, 1), LocalDate.of(2024, 6, 30));
+
+        // when
+        service.getSummary("USD", LocalDate.of(2024, 6, 10), LocalDate.of(2024, 6, 20));
+        List<RatePoint> extended = service.getSeries("USD", LocalDate.of(2024, 5, 27), LocalDate.of(2024, 6, 30));
+
+        // then
+        assertEquals(24, extended.size()); // May 30th is Corpus Christi
+        verify(nbpClient).getTables(LocalDate.of(2024, 6, 1), LocalDate.of(2024, 6, 30));
+        verify(nbpClient).getTables(LocalDate.of(2024, 5, 27), LocalDate.of(2024, 5, 31));
+        verifyNoMoreInteractions(nbpClient);
+    }
+
+    @Test
+    void shouldServeLoadedRangeWhileAnotherQueryLoads() throws Exception {
+        // given: June is loaded and a query for May is stuck fetching
+        service.getSeries("USD", LocalDate.of(2024, 6, 1), LocalDate.of(2024, 6, 30));
+        CountDownLatch fetching = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            fetching.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return tables(invocation.getArgument(0), invocation.getArgument(1));
+        }).when(nbpClient).getTables(any(), any());
+        CompletableFuture<List<RatePoint>> backfill = CompletableFuture.supplyAsync(
+                () -> service.getSeries("USD", LocalDate.of(2024, 5, 1), LocalDate.of(2024, 6, 30)));
+        assertTrue(fetching.await(5, TimeUnit.SECONDS));
+
+        // when
+        CompletableFuture<RangeSummary> loadedRange = CompletableFuture.supplyAsync(
+                () -> service.getSummary("USD", LocalDate.of(2024, 6, 3), LocalDate.of(2024, 6, 9)));
+
+        // then
+        assertEquals(5, loadedRange.get(1, TimeUnit.SECONDS).getTables());
+        release.countDown();
+        assertFalse(backfill.get(5, TimeUnit.SECONDS).isEmpty());
+    }
+
+    @Test
+    void shouldRetryTodayOnlyAfterRetryInterval() {
+        // given: today's table is not published yet
+        doAnswer(invocation -> tables(invocation.getArgument(0), LocalDate.of(2024, 7, 2)))
+                .when(nbpClient).getTables(any(), any());
+        service.getSeries("USD", LocalDate.of(2024, 7, 1), LocalDate.of(2024, 7, 3));
+
+        // when
+        service.getSeries("USD", LocalDate.of(2024, 7, 1), LocalDate.of(2024, 7, 3));
+        clock.advance(Duration.ofMinutes(6));
+        service.getSeries("USD", LocalDate.of(2024, 7, 1), LocalDate.of(2024, 7, 3));
+
+        // then
+        verify(nbpClient).getTables(LocalDate.of(2024, 7, 1), LocalDate.of(2024, 7, 3));
+        verify(nbpClient).getTables(LocalDate.of(2024, 7, 3), LocalDate.of(2024, 7, 3));
+        verifyNoMoreInteractions(nbpClient);
+    }
+
+    @Test
+    void shouldKeepChunksLoadedBeforeFailure() {
+        // given: the second chunk of the first query fails
+        doAnswer(invocation -> tables(invocation.getArgument(0), invocation.getArgument(1)))
+                .doThrow(new UpstreamUnavailableException("Fetch from nbp-history failed"))
+                .doAnswer(invocation -> tables(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(nbpClient).getTables(any(), any());
+        assertThrows(UpstreamUnavailableException.class,
+                () -> service.getSeries("USD", LocalDate.of(2024, 1, 1), LocalDate.of(2024, 6, 30)));
+
+        // when
+        List<RatePoint> points = service.getSeries("USD", LocalDate.of(2024, 1, 1), LocalDate.of(2024, 6, 30));
+
+        // then
+        assertFalse(points.isEmpty());
+        verify(nbpClient).getTables(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 4, 2));
+        verify(nbpClient, times(2)).getTables(LocalDate.of(2024, 4, 3), LocalDate.of(2024, 6, 30));
+        verifyNoMoreInteractions(nbpClient);
+    }
+
+    @Test
+    void shouldKeepChunksAdjoiningLoadedRangeWhenBackfillFails() {
+        // given
+        service.getSeries("USD", LocalDate.of(2024, 6, 1), LocalDate.of(2024, 6, 30));
+        doAnswer(invocation -> tables(invocation.getArgument(0), invocation.getArgument(1)))
+                .doThrow(new UpstreamUnavailableException("Fetch from nbp-history failed"))
+                .doAnswer(invocation -> tables(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(nbpClient).getTables(any(), any());
+        assertThrows(UpstreamUnavailableException.class,
+                () -> service.getSeries("USD", LocalDate.of(2024, 1, 1), LocalDate.of(2024, 6, 30)));
+
+        // when
+        service.getSeries("USD", LocalDate.of(2024, 1, 1), LocalDate.of(2024, 6, 30));
+
+        // then: the chunk next to June is not fetched again
+        verify(nbpClient).getTables(LocalDate.of(2024, 2, 29), LocalDate.of(2024, 5, 31));
+        verify(nbpClient, times(2)).getTables(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 2, 28));
+    }
+
+    @Test
+    void shouldAskToRetryAndBackfillInStepsWhenQueryNeedsTooMuchHistory() throws Exception {
+        // when
+        HistoryLoadingException exception = assertThrows(
+                HistoryLoadingException.class,
+                () -> service.getSummary("USD", LocalDate.of(2002, 1, 2), LocalDate.of(2024, 6, 30))
+        );
+        RangeSummary summary = null;
+        for (int attempt = 0; summary == null && attempt < 500; attempt++) {
+            try {
+                summary = service.getSummary("USD", LocalDate.of(2002, 1, 2), LocalDate.of(2024, 6, 30));
+            } catch (HistoryLoadingException e) {
+                Thread.sleep(10);
+            }
+        }
+
+        // then: the retry is answered once the background backfill has walked back to 2002
+        assertTrue(exception.getMessage().contains("still loading"));
+        assertNotNull(summary);
+        assertEquals(LocalDate.of(2024, 6, 28), summary.getLastDate());
+        verify(nbpClient).getTables(LocalDate.of(2002, 1, 2), LocalDate.of(2002, 1, 31));
+    }
+
+    @Test
+    void shouldThrowExceptionWhenCurrencyNotFound() {
+        // when and then
+        IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> service.getSummary("XYZ", LocalDate.of(2024, 6, 3), LocalDate.of(2024, 6, 9))
+        );
+        assertEquals("Currency not found: XYZ", exception.getMessage());
+    }
+
+    @Test
+    void shouldThrowExceptionWhenRangeIsReversed() {
+        // when and then
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> service.getSummary("USD", LocalDate.of(2024, 6, 9), LocalDate.of(2024, 6, 3))
+        );
+    }
+}
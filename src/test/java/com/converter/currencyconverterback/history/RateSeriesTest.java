@@ -0,0 +1,97 @@
+package com.converter.currencyconverterback.history;
+
+import com.converter.currencyconverterback.domain.RangeSummary;
+import com.converter.currencyconverterback.domain.RatePoint;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class RateSeriesTest {
+
+    private static final LocalDate START = LocalDate.of(2020, 1, 1);
+
+    @Test
+    void shouldMatchBruteForceAggregatesOnRandomRanges() {
+        // given
+        Random random = new Random(42);
+        int size = 700;
+        int[] days = new int[size];
+        long[] bids = new long[size];
+        long[] asks = new long[size];
+        int day = (int) START.toEpochDay();
+        for (int i = 0; i < size; i++) {
+            day += 1 + random.nextInt(3);
+            days[i] = day;
+            bids[i] = 38_000 + random.nextInt(4_000);
+            asks[i] = bids[i] + random.nextInt(1_000);
+        }
+        RateSeries series = new RateSeries(days, bids, asks);
+
+        for (int run = 0; run < 500; run++) {
+            LocalDate from = LocalDate.ofEpochDay(days[0] - 5 + random.nextInt(size * 2));
+            LocalDate to = from.plusDays(random.nextInt(size));
+
+            // when
+            RangeSummary summary = series.summarize("USD", from, to);
+
+            // then
+            long minBid = Long.MAX_VALUE, maxBid = Long.MIN_VALUE, sumBid = 0, lastBid = 0;
+            long minAsk = Long.MAX_VALUE, maxAsk = Long.MIN_VALUE, sumAsk = 0, lastAsk = 0;
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                if (days[i] >= from.toEpochDay() && days[i] <= to.toEpochDay()) {
+                    minBid = Math.min(minBid, bids[i]);
+                    maxBid = Math.max(maxBid, bids[i]);
+                    minAsk = Math.min(minAsk, asks[i]);
+                    maxAsk = Math.max(maxAsk, asks[i]);
+                    sumBid += bids[i];
+                    sumAsk += asks[i];
+                    lastBid = bids[i];
+                    lastAsk = asks[i];
+                    count++;
+                }
+            }
+
+            if (count == 0) {
+                assertNull(summary);
+                continue;
+            }
+            assertEquals(count, summary.getTables());
+            assertEquals(BigDecimal.valueOf(minBid, 4), summary.getMinBid());
+            assertEquals(BigDecimal.valueOf(maxBid, 4), summary.getMaxBid());
+            assertEquals(BigDecimal.valueOf(lastBid, 4), summary.getLastBid());
+            assertEquals(BigDecimal.valueOf(minAsk, 4), summary.getMinAsk());
+            assertEquals(BigDecimal.valueOf(maxAsk, 4), summary.getMaxAsk());
+            assertEquals(BigDecimal.valueOf(lastAsk, 4), summary.getLastAsk());
+            assertEquals(BigDecimal.valueOf(sumBid, 4).divide(BigDecimal.valueOf(count), 4, RoundingMode.HALF_UP),
+                    summary.getAvgBid());
+            assertEquals(BigDecimal.valueOf(sumAsk, 4).divide(BigDecimal.valueOf(count), 4, RoundingMode.HALF_UP),
+                    summary.getAvgAsk());
+        }
+    }
+
+    @Test
+    void shouldReturnPointsInsideRange() {
+        // given
+        int first = (int) START.toEpochDay();
+        RateSeries series = new RateSeries(
+                new int[]{first, first + 1, first + 4},
+                new long[]{39_000, 39_100, 39_200},
+                new long[]{40_000, 40_100, 40_200});
+
+        // when
+        List<RatePoint> points = series.points(START.plusDays(1), START.plusDays(4));
+
+        // then
+        assertEquals(2, points.size());
+        assertEquals(new RatePoint(START.plusDays(1), new BigDecimal("3.9100"), new BigDecimal("4.0100")), points.get(0));
+        assertEquals(START.plusDays(4), points.get(1).getDate());
+    }
+}
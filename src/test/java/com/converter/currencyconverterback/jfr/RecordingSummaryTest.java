@@ -0,0 +1,69 @@
+package com.converter.currencyconverterback.jfr;
+
+import jdk.jfr.Recording;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class RecordingSummaryTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldSummariseCustomEvents() throws Exception {
+        // given
+        Path file = tempDir.resolve("test.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(ConversionEvent.class);
+            recording.enable(CacheLookupEvent.class);
+            recording.enable(SnapshotSwapEvent.class);
+            recording.start();
+
+            for (int i = 0; i < 3; i++) {
+                ConversionEvent conversion = new ConversionEvent();
+                conversion.begin();
+                conversion.currencyFrom = "EUR";
+                conversion.currencyTo = "PLN";
+                conversion.commit();
+            }
+            for (boolean hit : new boolean[]{false, true}) {
+                CacheLookupEvent lookup = new CacheLookupEvent();
+                lookup.cache = "rates-snapshot";
+                lookup.hit = hit;
+                lookup.commit();
+            }
+
+            SnapshotSwapEvent swap = new SnapshotSwapEvent();
+            swap.previousTableNo = "001/C/NBP/2024";
+            swap.tableNo = "002/C/NBP/2024";
+            swap.rates = 13;
+            swap.commit();
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        // when
+        String summary = RecordingSummary.summarize(file);
+
+        // then
+        assertTrue(summary.contains("EUR->PLN"), summary);
+        assertTrue(summary.contains("count=3"), summary);
+        assertTrue(summary.contains("hits=1 misses=1 hit-ratio=50.0%"), summary);
+        assertTrue(summary.contains("001/C/NBP/2024 -> 002/C/NBP/2024 (13 rates)"), summary);
+    }
+
+    @Test
+    void shouldNotRecordEventsUnlessEnabled() {
+        // given
+        ConversionEvent event = new ConversionEvent();
+
+        // when and then
+        assertFalse(event.isEnabled());
+    }
+}
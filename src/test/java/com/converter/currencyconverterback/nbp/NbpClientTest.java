@@ -3,21 +3,29 @@ package com.converter.currencyconverterback.nbp;
 import com.converter.currencyconverterback.CurrencyConverterBackApplication;
 import com.converter.currencyconverterback.domain.Currency;
 import com.converter.currencyconverterback.domain.Rates;
+import com.converter.currencyconverterback.domain.RatesSnapshot;
+import com.converter.currencyconverterback.jfr.CacheLookupEvent;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordingFile;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
-import org.springframework.cache.Cache;
-import org.springframework.cache.CacheManager;
-import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.web.client.RestClient;
 import org.springframework.web.client.RestClientException;
 
 import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
@@ -25,8 +33,9 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
-@SpringBootTest(classes = CurrencyConverterBackApplication.class)
-@EnableCaching
+@SpringBootTest(classes = CurrencyConverterBackApplication.class, properties = "ecb.enabled=false")
+// The client remembers the last good table and breaker state, so every test starts from a fresh context
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
 @SuppressWarnings({"unchecked", "rawtypes"})
 class NbpClientTest {
 
@@ -36,9 +45,6 @@ class NbpClientTest {
     @Autowired
     private NbpClient nbpClient;
 
-    @Autowired
-    private CacheManager cacheManager;
-
     private RestClient mockRestClient;
     private RestClient.RequestHeadersUriSpec mockRequestHeadersUriSpec;
     private RestClient.RequestHeadersSpec mockRequestHeadersSpec;
@@ -53,6 +59,7 @@ class NbpClientTest {
         mockResponseSpec = mock(RestClient.ResponseSpec.class);
 
         // Configure the mock RestClient.Builder to return our specific mockRestClient
+        when(restClientBuilder.clone()).thenReturn(restClientBuilder);
         when(restClientBuilder.baseUrl(any(String.class))).thenReturn(restClientBuilder);
         when(restClientBuilder.build()).thenReturn(mockRestClient);
 
@@ -60,12 +67,6 @@ class NbpClientTest {
         when(mockRestClient.get()).thenReturn(mockRequestHeadersUriSpec);
         when(mockRequestHeadersUriSpec.uri(any(String.class))).thenReturn(mockRequestHeadersSpec);
         when(mockRequestHeadersSpec.retrieve()).thenReturn(mockResponseSpec);
-
-        // Clear the cache before each test to ensure test isolation for caching tests
-        Cache cache = cacheManager.getCache("currencies");
-        if (cache != null) {
-            cache.clear();
-        }
     }
 
     // Helper method to create Rates objects
@@ -137,7 +138,7 @@ class NbpClientTest {
     }
 
     @Test
-    void getAllCurrencies_shouldUseCache_onSubsequentCalls() {
+    void getAllCurrencies_shouldServeLoadedSnapshot_onSubsequentCalls() {
         // Arrange
         Rates rate1 = createRate("USD", "dolar amerykański", "4.00", "4.10");
         Rates rate2 = createRate("EUR", "euro", "4.50", "4.60");
@@ -149,7 +150,7 @@ class NbpClientTest {
 
         when(mockResponseSpec.body(Currency[].class)).thenReturn(mockResponse);
 
-        // Act - First call; should populate a cache
+        // Act - First call; loads the snapshot
         List<Rates> firstResult = nbpClient.getAllCurrencies();
 
         // Assert
@@ -163,7 +164,7 @@ class NbpClientTest {
         verify(mockRequestHeadersSpec, times(1)).retrieve();
         verify(mockResponseSpec, times(1)).body(Currency[].class);
 
-        // Act - Second call; should use cache
+        // Act - Second call; served from the loaded snapshot
         List<Rates> secondResult = nbpClient.getAllCurrencies();
 
         // Assert
@@ -177,4 +178,92 @@ class NbpClientTest {
         verify(mockRequestHeadersSpec, times(1)).retrieve();
         verify(mockResponseSpec, times(1)).body(Currency[].class);
     }
+
+    @Test
+    void getSnapshot_shouldRecordMissThenHit(@TempDir Path tempDir) throws Exception {
+        // Arrange
+        Path file = tempDir.resolve("lookups.jfr");
+        when(mockResponseSpec.body(Currency[].class))
+                .thenReturn(new Currency[]{createCurrency(createRate("USD", "dolar amerykański", "4.00", "4.10"))});
+
+        // Act
+        try (Recording recording = new Recording()) {
+            recording.enable(CacheLookupEvent.class);
+            recording.start();
+            nbpClient.getSnapshot();
+            nbpClient.getSnapshot();
+            recording.stop();
+            recording.dump(file);
+        }
+
+        // Assert
+        List<Boolean> hits = RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().equals(CacheLookupEvent.NAME))
+                .filter(event -> event.getString("cache").equals(NbpClient.SNAPSHOT_CACHE))
+                .map(event -> event.getBoolean("hit"))
+                .toList();
+        assertEquals(List.of(false, true), hits);
+    }
+
+    @Test
+    void getAllCurrencies_shouldNotKeepEmptyRates_afterFailedFetch() {
+        // Arrange
+        Rates rate = createRate("USD", "dolar amerykański", "4.00", "4.10");
+        when(mockResponseSpec.body(Currency[].class))
+                .thenThrow(new RestClientException("API Error"))
+                .thenReturn(new Currency[]{createCurrency(rate)});
+        List<Rates> failed = nbpClient.getAllCurrencies();
+
+        // Act
+        RatesSnapshot snapshot = nbpClient.getSnapshot();
+        List<Rates> result = nbpClient.getAllCurrencies();
+
+        // Assert
+        assertTrue(failed.isEmpty());
+        assertEquals(List.of(rate), snapshot.getRates());
+        assertEquals(List.of(rate), result);
+        verify(mockRestClient, times(2)).get();
+    }
+
+    @Test
+    void getAllCurrencies_shouldReturnLastGoodRates_onRestClientExceptionAfterSuccess() {
+        // Arrange
+        Rates rate = createRate("USD", "dolar amerykański", "4.00", "4.10");
+        when(mockResponseSpec.body(Currency[].class))
+                .thenReturn(new Currency[]{createCurrency(rate)})
+                .thenThrow(new RestClientException("API Error"));
+        nbpClient.getAllCurrencies();
+
+        // Act
+        List<Rates> result = nbpClient.refreshCurrencies();
+
+        // Assert
+        assertEquals(List.of(rate), result);
+        verify(mockRestClient, times(2)).get();
+        assertEquals(1, nbpClient.getFetchStats().get(0).getFailures());
+    }
+
+    @Test
+    void getSnapshot_shouldFetchOnce_whenColdCallersArriveTogether() throws Exception {
+        // Arrange - the fetch stays in flight long enough for every caller to arrive
+        Rates rate = createRate("USD", "dolar amerykański", "4.00", "4.10");
+        when(mockResponseSpec.body(Currency[].class)).thenAnswer(invocation -> {
+            Thread.sleep(100);
+            return new Currency[]{createCurrency(rate)};
+        });
+
+        // Act
+        List<CompletableFuture<RatesSnapshot>> callers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            callers.add(CompletableFuture.supplyAsync(nbpClient::getSnapshot));
+        }
+        List<RatesSnapshot> snapshots = new ArrayList<>();
+        for (CompletableFuture<RatesSnapshot> caller : callers) {
+            snapshots.add(caller.get(5, TimeUnit.SECONDS));
+        }
+
+        // Assert - one fetch, and every caller got the table it installed
+        verify(mockRestClient, times(1)).get();
+        snapshots.forEach(snapshot -> assertSame(snapshots.get(0), snapshot));
+    }
 }
@@ -0,0 +1,48 @@
+package com.converter.currencyconverterback.nbp;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class PublicationCalendarTest {
+
+    private final PublicationCalendar calendar = new PublicationCalendar();
+
+    @Test
+    void shouldComputeEasterSunday() {
+        assertEquals(LocalDate.of(2024, 3, 31), PublicationCalendar.easterSunday(2024));
+        assertEquals(LocalDate.of(2025, 4, 20), PublicationCalendar.easterSunday(2025));
+        assertEquals(LocalDate.of(2026, 4, 5), PublicationCalendar.easterSunday(2026));
+    }
+
+    @Test
+    void shouldPublishOnOrdinaryWeekdays() {
+        assertTrue(calendar.isPublicationDay(LocalDate.of(2024, 1, 2)));
+        assertTrue(calendar.isPublicationDay(LocalDate.of(2024, 12, 24)));
+    }
+
+    @Test
+    void shouldNotPublishOnWeekends() {
+        assertFalse(calendar.isPublicationDay(LocalDate.of(2024, 1, 6)));
+        assertFalse(calendar.isPublicationDay(LocalDate.of(2024, 1, 7)));
+    }
+
+    @Test
+    void shouldNotPublishOnFixedHolidays() {
+        assertFalse(calendar.isPublicationDay(LocalDate.of(2024, 1, 1)));
+        assertFalse(calendar.isPublicationDay(LocalDate.of(2024, 5, 3)));
+        assertFalse(calendar.isPublicationDay(LocalDate.of(2024, 8, 15)));
+        assertFalse(calendar.isPublicationDay(LocalDate.of(2024, 11, 11)));
+        assertFalse(calendar.isPublicationDay(LocalDate.of(2025, 12, 24)));
+    }
+
+    @Test
+    void shouldNotPublishOnMovableHolidays() {
+        assertFalse(calendar.isPublicationDay(LocalDate.of(2024, 4, 1)));  // Easter Monday
+        assertFalse(calendar.isPublicationDay(LocalDate.of(2024, 5, 30))); // Corpus Christi
+        assertTrue(calendar.isHoliday(LocalDate.of(2024, 5, 19)));         // Pentecost
+    }
+}
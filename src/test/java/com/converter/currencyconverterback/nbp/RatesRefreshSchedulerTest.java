@@ -0,0 +1,159 @@
+package com.converter.currencyconverterback.nbp;
+
+import com.converter.currencyconverterback.MutableClock;
+import com.converter.currencyconverterback.domain.Rates;
+import com.converter.currencyconverterback.domain.RatesSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+
+@ExtendWith(MockitoExtension.class)
+class RatesRefreshSchedulerTest {
+
+    @Mock
+    private NbpClient nbpClient;
+
+    private MutableClock clock;
+    private RatesRefreshScheduler scheduler;
+
+    // Tuesday 2024-01-02, 07:00 in Warsaw
+    private static final String BEFORE_WINDOW = "2024-01-02T06:00:00Z";
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(BEFORE_WINDOW);
+        scheduler = new RatesRefreshScheduler(nbpClient, new PublicationCalendar(), clock,
+                "07:45", "09:00", Duration.ofMinutes(30).toMillis());
+    }
+
+    private RatesSnapshot table(String no, String effectiveDate) {
+        return new RatesSnapshot(no, effectiveDate,
+                List.of(new Rates("US Dollar", "USD", new BigDecimal("3.90"), new BigDecimal("4.00"))));
+    }
+
+    @Test
+    void shouldStayIdleBeforePublicationWindow() {
+        // given
+        when(nbpClient.hasSnapshot()).thenReturn(true);
+
+        // when
+        scheduler.pollForNewTable();
+
+        // then
+        verify(nbpClient, never()).refreshCurrencies();
+    }
+
+    @Test
+    void shouldPollInsideWindowUntilNewTableIsSeen() {
+        // given
+        when(nbpClient.hasSnapshot()).thenReturn(true);
+        when(nbpClient.getSnapshot()).thenReturn(
+                table("001/C/NBP/2024", "2023-12-29"),
+                table("001/C/NBP/2024", "2023-12-29"),
+                table("001/C/NBP/2024", "2023-12-29"),
+                table("002/C/NBP/2024", "2024-01-02"));
+        clock.advance(Duration.ofMinutes(50));
+
+        // when
+        scheduler.pollForNewTable();
+        clock.advance(Duration.ofMinutes(1));
+        scheduler.pollForNewTable();
+        clock.advance(Duration.ofMinutes(1));
+        scheduler.pollForNewTable();
+
+        // then
+        verify(nbpClient, times(2)).refreshCurrencies();
+    }
+
+    @Test
+    void shouldFallBackToLatePollingAfterWindow() {
+        // given
+        when(nbpClient.hasSnapshot()).thenReturn(true);
+        when(nbpClient.getSnapshot()).thenReturn(table("001/C/NBP/2024", "2023-12-29"));
+        clock.advance(Duration.ofHours(4));
+
+        // when
+        scheduler.pollForNewTable();
+        clock.advance(Duration.ofMinutes(10));
+        scheduler.pollForNewTable();
+        clock.advance(Duration.ofMinutes(20));
+        scheduler.pollForNewTable();
+
+        // then
+        verify(nbpClient, times(2)).refreshCurrencies();
+    }
+
+    @Test
+    void shouldStayIdleOnHolidays() {
+        // given
+        when(nbpClient.hasSnapshot()).thenReturn(true);
+        clock.set(Instant.parse("2024-01-01T07:00:00Z"));
+
+        // when
+        scheduler.pollForNewTable();
+
+        // then
+        verify(nbpClient, never()).refreshCurrencies();
+    }
+
+    @Test
+    void shouldRetryOnNonPublicationDayWhenNothingIsLoaded() {
+        // given
+        when(nbpClient.hasSnapshot()).thenReturn(false);
+        clock.set(Instant.parse("2024-01-06T12:00:00Z"));
+
+        // when
+        scheduler.pollForNewTable();
+
+        // then
+        verify(nbpClient).refreshCurrencies();
+    }
+
+    @Test
+    void shouldRetryOnEveryTickUntilSomethingIsLoaded() {
+        // given
+        when(nbpClient.hasSnapshot()).thenReturn(false, false, false, false, true);
+        when(nbpClient.getSnapshot()).thenReturn(table("001/C/NBP/2024", "2024-01-05"));
+        clock.set(Instant.parse("2024-01-06T12:00:00Z"));
+
+        // when
+        scheduler.pollForNewTable();
+        clock.advance(Duration.ofMinutes(1));
+        scheduler.pollForNewTable();
+
+        // then
+        verify(nbpClient, times(2)).refreshCurrencies();
+    }
+
+    @Test
+    void shouldKeepPollingWhileOnlySecondaryRatesAreServed() {
+        // given: NBP is down and only ECB rates effective today are served
+        when(nbpClient.hasSnapshot()).thenReturn(true);
+        when(nbpClient.getSnapshot()).thenReturn(
+                table("001/C/NBP/2024", "2023-12-29"),
+                new RatesSnapshot("ecb:2024-01-02", null, List.of()),
+                new RatesSnapshot("ecb:2024-01-02", null, List.of()),
+                table("002/C/NBP/2024", "2024-01-02"));
+        clock.advance(Duration.ofMinutes(50));
+
+        // when
+        scheduler.pollForNewTable();
+        clock.advance(Duration.ofMinutes(1));
+        scheduler.pollForNewTable();
+        clock.advance(Duration.ofMinutes(1));
+        scheduler.pollForNewTable();
+
+        // then
+        verify(nbpClient, times(2)).refreshCurrencies();
+    }
+}
@@ -0,0 +1,72 @@
+package com.converter.currencyconverterback.provider;
+
+import com.converter.currencyconverterback.domain.Rates;
+import com.converter.currencyconverterback.upstream.FetchPolicy;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class EcbRateProviderTest {
+
+    private HttpServer server;
+    private EcbRateProvider provider;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        // Serve the local fixture instead of the real ECB feed
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/eurofxref-daily.xml", exchange -> {
+            try (InputStream fixture = getClass().getResourceAsStream("/ecb/eurofxref-daily.xml")) {
+                byte[] body = fixture.readAllBytes();
+                exchange.getResponseHeaders().add("Content-Type", "text/xml");
+                exchange.sendResponseHeaders(200, body.length);
+                exchange.getResponseBody().write(body);
+            }
+            exchange.close();
+        });
+        server.start();
+
+        FetchPolicy policy = new FetchPolicy(Duration.ofSeconds(3), Duration.ofMillis(500), Duration.ofMillis(50),
+                5, Duration.ofSeconds(30));
+        provider = new EcbRateProvider(RestClient.builder(),
+                "http://localhost:" + server.getAddress().getPort() + "/eurofxref-daily.xml", policy);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void shouldFetchReferenceRatesAsEuroPrices() {
+        // when
+        ProviderRates rates = provider.fetchRates();
+
+        // then
+        assertEquals("EUR", rates.getBaseCurrency());
+        assertEquals("2024-01-02", rates.getEffectiveDate());
+        assertEquals(5, rates.getRates().size());
+
+        Rates usd = rates.findRate("USD").orElseThrow();
+        assertEquals(new BigDecimal("0.9127418766"), usd.getBid()); // 1 / 1.0956
+        assertEquals(usd.getBid(), usd.getAsk());
+        assertEquals("dolar amerykański", usd.getCurrency());
+    }
+
+    @Test
+    void shouldRejectMalformedFeed() {
+        // when and then
+        assertThrows(IllegalStateException.class, () -> EcbRateProvider.parse("<Cube"));
+    }
+}
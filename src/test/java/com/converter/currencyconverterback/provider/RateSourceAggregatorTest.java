@@ -0,0 +1,151 @@
+package com.converter.currencyconverterback.provider;
+
+import com.converter.currencyconverterback.domain.Rates;
+import com.converter.currencyconverterback.domain.RatesSnapshot;
+import com.converter.currencyconverterback.upstream.FetchPolicy;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class RateSourceAggregatorTest {
+
+    private static final ProviderRates NBP = new ProviderRates("PLN", "001/C/NBP/2024", "2024-01-02", List.of(
+            new Rates("dolar amerykański", "USD", new BigDecimal("3.9000"), new BigDecimal("4.0000")),
+            new Rates("euro", "EUR", new BigDecimal("4.3000"), new BigDecimal("4.4000"))));
+
+    private static final ProviderRates ECB = new ProviderRates("EUR", "2024-01-01", "2024-01-01", List.of(
+            new Rates("USD", "USD", new BigDecimal("0.90"), new BigDecimal("0.90")),
+            new Rates("RON", "RON", new BigDecimal("0.20"), new BigDecimal("0.20")),
+            new Rates("PLN", "PLN", new BigDecimal("0.25"), new BigDecimal("0.25"))));
+
+    private static RateProvider provider(String name, long deadlineMs, Supplier<ProviderRates> rates) {
+        FetchPolicy policy = new FetchPolicy(Duration.ofMillis(deadlineMs), Duration.ofSeconds(10),
+                Duration.ofMillis(50), 5, Duration.ofSeconds(30));
+        return new RateProvider() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public FetchPolicy getFetchPolicy() {
+                return policy;
+            }
+
+            @Override
+            public ProviderRates fetchRates() {
+                return rates.get();
+            }
+        };
+    }
+
+    @Test
+    void shouldPreferEarlierProviderAndTriangulateMissingCurrencies() {
+        // given
+        RateSourceAggregator aggregator = new RateSourceAggregator(List.of(
+                provider("nbp", 1000, () -> NBP),
+                provider("ecb", 1000, () -> ECB)));
+
+        // when
+        RatesSnapshot snapshot = aggregator.fetchSnapshot();
+
+        // then
+        assertEquals("nbp:001/C/NBP/2024+ecb:2024-01-01", snapshot.getTableNo());
+        assertEquals("2024-01-02", snapshot.getEffectiveDate());
+        assertEquals(List.of("USD", "EUR", "RON"), snapshot.getRates().stream().map(Rates::getCode).toList());
+        assertEquals(new BigDecimal("3.9000"), snapshot.findRate("USD").orElseThrow().getBid());
+        // RON through EUR: 4.30 * 0.20 and 4.40 * 0.20
+        assertEquals(new BigDecimal("0.860000"), snapshot.findRate("RON").orElseThrow().getBid());
+        assertEquals(new BigDecimal("0.880000"), snapshot.findRate("RON").orElseThrow().getAsk());
+    }
+
+    @Test
+    void shouldTriangulateThroughProvidersOwnPlnRateWhenPrimaryIsDown() {
+        // given
+        RateSourceAggregator aggregator = new RateSourceAggregator(List.of(
+                provider("nbp", 1000, () -> {
+                    throw new IllegalStateException("NBP is down");
+                }),
+                provider("ecb", 1000, () -> ECB)));
+
+        // when
+        RatesSnapshot snapshot = aggregator.fetchSnapshot();
+
+        // then
+        assertEquals("ecb:2024-01-01", snapshot.getTableNo());
+        assertNull(snapshot.getEffectiveDate());
+        assertEquals(new BigDecimal("4.000000"), snapshot.findRate("EUR").orElseThrow().getBid()); // 1 / 0.25
+        assertEquals(new BigDecimal("3.600000"), snapshot.findRate("USD").orElseThrow().getBid()); // 4 * 0.90
+        assertEquals(2, aggregator.getFetchStats().size());
+        assertEquals(1, aggregator.getFetchStats().get(0).getFailures());
+    }
+
+    @Test
+    void shouldFetchProvidersInParallelEachUnderItsOwnDeadline() {
+        // given: NBP answers only once ECB has started, and ECB never answers within its deadline
+        CountDownLatch ecbStarted = new CountDownLatch(1);
+        CountDownLatch ecbReleased = new CountDownLatch(1);
+        RateSourceAggregator aggregator = new RateSourceAggregator(List.of(
+                provider("nbp", 5000, () -> {
+                    await(ecbStarted);
+                    return NBP;
+                }),
+                provider("ecb", 200, () -> {
+                    ecbStarted.countDown();
+                    await(ecbReleased);
+                    return ECB;
+                })));
+
+        // when
+        RatesSnapshot snapshot = aggregator.fetchSnapshot();
+        ecbReleased.countDown();
+
+        // then
+        assertEquals("nbp:001/C/NBP/2024", snapshot.getTableNo());
+        assertEquals(2, snapshot.getRates().size());
+        assertEquals(0, aggregator.getFetchStats().get(0).getTimeouts());
+        assertEquals(1, aggregator.getFetchStats().get(1).getTimeouts());
+    }
+
+    @Test
+    void shouldRunConcurrentSnapshotLoadsWithoutQueueing() throws Exception {
+        // given: NBP answers only once four fetches are in flight at the same time
+        CountDownLatch inFlight = new CountDownLatch(4);
+        RateSourceAggregator aggregator = new RateSourceAggregator(List.of(
+                provider("nbp", 10_000, () -> {
+                    inFlight.countDown();
+                    await(inFlight);
+                    return NBP;
+                })));
+
+        // when
+        List<CompletableFuture<RatesSnapshot>> loads = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            loads.add(CompletableFuture.supplyAsync(aggregator::fetchSnapshot));
+        }
+
+        // then: a queueing pool would hold three of them back and none would finish in time
+        for (CompletableFuture<RatesSnapshot> load : loads) {
+            assertEquals("nbp:001/C/NBP/2024", load.get(5, TimeUnit.SECONDS).getTableNo());
+        }
+        assertEquals(0, aggregator.getFetchStats().get(0).getTimeouts());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
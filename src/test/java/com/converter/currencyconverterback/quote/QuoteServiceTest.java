@@ -0,0 +1,80 @@
+package com.converter.currencyconverterback.quote;
+
+import com.converter.currencyconverterback.MutableClock;
+import com.converter.currencyconverterback.domain.Quote;
+import com.converter.currencyconverterback.domain.Rates;
+import com.converter.currencyconverterback.domain.RatesSnapshot;
+import com.converter.currencyconverterback.exception.QuoteNotFoundException;
+import com.converter.currencyconverterback.nbp.NbpClient;
+import com.converter.currencyconverterback.service.CurrencyConversionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+
+@ExtendWith(MockitoExtension.class)
+class QuoteServiceTest {
+
+    @Mock
+    private NbpClient nbpClient;
+
+    private MutableClock clock;
+    private QuoteService quoteService;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock("2024-01-02T10:00:00Z");
+        quoteService = new QuoteService(nbpClient, new CurrencyConversionService(nbpClient), clock,
+                30_000, 100, 16, 100);
+    }
+
+    @Test
+    void shouldRedeemAtLockedRatesAfterTableChanges() {
+        // given
+        when(nbpClient.getSnapshot()).thenReturn(snapshot("001/C/NBP/2024", "3.90", "4.00"));
+        Quote quote = quoteService.issueQuote(new BigDecimal("100"), "USD", "PLN");
+        clock.advance(Duration.ofSeconds(10));
+        when(nbpClient.getSnapshot()).thenReturn(snapshot("002/C/NBP/2024", "3.80", "3.90"));
+        Quote freshQuote = quoteService.issueQuote(new BigDecimal("100"), "USD", "PLN");
+
+        // when
+        BigDecimal result = quoteService.redeemQuote(quote.getId());
+
+        // then
+        assertEquals(new BigDecimal("390.00"), quote.getResult());
+        assertEquals(new BigDecimal("380.00"), freshQuote.getResult());
+        assertEquals(quote.getResult(), result);
+        assertEquals(clock.instant().plusSeconds(20), quote.getExpiresAt());
+    }
+
+    @Test
+    void shouldRejectExpiredUnknownAndRedeemedQuotes() {
+        // given
+        when(nbpClient.getSnapshot()).thenReturn(snapshot("001/C/NBP/2024", "3.90", "4.00"));
+        Quote redeemed = quoteService.issueQuote(BigDecimal.TEN, "PLN", "USD");
+        Quote expired = quoteService.issueQuote(BigDecimal.TEN, "PLN", "USD");
+        quoteService.redeemQuote(redeemed.getId());
+
+        // when
+        clock.advance(Duration.ofSeconds(30));
+
+        // then
+        assertThrows(QuoteNotFoundException.class, () -> quoteService.redeemQuote(redeemed.getId()));
+        assertThrows(QuoteNotFoundException.class, () -> quoteService.redeemQuote(expired.getId()));
+        assertThrows(QuoteNotFoundException.class, () -> quoteService.redeemQuote("not-a-quote"));
+    }
+
+    private RatesSnapshot snapshot(String tableNo, String bid, String ask) {
+        return new RatesSnapshot(tableNo, "2024-01-02",
+                List.of(new Rates("US Dollar", "USD", new BigDecimal(bid), new BigDecimal(ask))));
+    }
+}
@@ -0,0 +1,172 @@
+package com.converter.currencyconverterback.quote;
+
+import com.converter.currencyconverterback.exception.QuoteCapacityExceededException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class QuoteStoreTest {
+
+    private static final BigDecimal BID = new BigDecimal("3.9000");
+    private static final BigDecimal ASK = new BigDecimal("4.0000");
+
+    @Test
+    void shouldRedeemQuoteAtLockedRates() {
+        // given
+        QuoteStore store = new QuoteStore(30_000, 100, 4, 100, 0);
+        long id = store.issue(new BigDecimal("100.50"), "USD", "EUR", BID, ASK, 0);
+
+        // when
+        LockedQuote quote = store.redeem(id, 1_000);
+
+        // then
+        assertNotEquals(0, id);
+        assertEquals(new BigDecimal("100.50"), quote.amount());
+        assertEquals("USD", quote.currencyFrom());
+        assertEquals("EUR", quote.currencyTo());
+        assertEquals(0, BID.compareTo(quote.rateFrom()));
+        assertEquals(0, ASK.compareTo(quote.rateTo()));
+    }
+
+    @Test
+    void shouldRedeemQuoteOnlyOnce() {
+        // given
+        QuoteStore store = new QuoteStore(30_000, 100, 4, 100, 0);
+        long id = store.issue(BigDecimal.TEN, "USD", "PLN", BID, BigDecimal.ONE, 0);
+
+        // when
+        LockedQuote first = store.redeem(id, 10);
+        LockedQuote second = store.redeem(id, 20);
+
+        // then
+        assertNotNull(first);
+        assertNull(second);
+        assertEquals(1, store.getStats().getRedeemed());
+    }
+
+    @Test
+    void shouldRejectQuoteRedeemedAfterTtlBeforeWheelAdvanced() {
+        // given
+        QuoteStore store = new QuoteStore(1_000, 100, 4, 100, 0);
+        long id = store.issue(BigDecimal.TEN, "USD", "PLN", BID, BigDecimal.ONE, 50);
+
+        // when
+        LockedQuote quote = store.redeem(id, 1_050);
+
+        // then
+        assertNull(quote);
+        assertEquals(0, store.getStats().getLiveQuotes());
+        assertEquals(1, store.getStats().getExpired());
+    }
+
+    @Test
+    void shouldExpireQuotesWhenWheelAdvances() {
+        // given
+        QuoteStore store = new QuoteStore(1_000, 100, 4, 100, 0);
+        store.issue(BigDecimal.ONE, "USD", "PLN", BID, BigDecimal.ONE, 0);
+        store.issue(BigDecimal.ONE, "USD", "PLN", BID, BigDecimal.ONE, 500);
+
+        // when
+        store.advance(999);
+        int liveBeforeTtl = store.getStats().getLiveQuotes();
+        store.advance(1_000);
+        int liveAfterFirstTtl = store.getStats().getLiveQuotes();
+        store.advance(60_000);
+
+        // then
+        assertEquals(2, liveBeforeTtl);
+        assertEquals(1, liveAfterFirstTtl);
+        assertEquals(0, store.getStats().getLiveQuotes());
+        assertEquals(2, store.getStats().getExpired());
+    }
+
+    @Test
+    void shouldGrowAndReuseSlots() {
+        // given
+        QuoteStore store = new QuoteStore(1_000, 100, 64, 1_000, 0);
+        Map<Long, BigDecimal> issued = new HashMap<>();
+
+        // when
+        for (int i = 0; i < 500; i++) {
+            BigDecimal amount = BigDecimal.valueOf(i, 2);
+            issued.put(store.issue(amount, "USD", "PLN", BID, BigDecimal.ONE, 0), amount);
+        }
+        int capacity = store.getStats().getCapacity();
+        store.advance(5_000);
+        for (int i = 0; i < 500; i++) {
+            store.issue(BigDecimal.ONE, "EUR", "PLN", BID, BigDecimal.ONE, 5_000);
+        }
+
+        // then
+        assertEquals(512, capacity);
+        assertEquals(512, store.getStats().getCapacity());
+        assertEquals(500, store.getStats().getLiveQuotes());
+        issued.keySet().forEach(id -> assertNull(store.redeem(id, 5_000)));
+    }
+
+    @Test
+    void shouldNotLeakSlotsWhenQuoteIsRejected() {
+        // given
+        QuoteStore store = new QuoteStore(1_000, 100, 2, 2, 0);
+        BigDecimal tooPrecise = new BigDecimal("3.123456789");
+
+        // when
+        for (int i = 0; i < 10; i++) {
+            assertThrows(IllegalArgumentException.class,
+                    () -> store.issue(BigDecimal.ONE, "USD", "PLN", tooPrecise, BigDecimal.ONE, 0));
+        }
+        store.issue(BigDecimal.ONE, "USD", "PLN", BID, BigDecimal.ONE, 0);
+        store.issue(BigDecimal.ONE, "USD", "PLN", BID, BigDecimal.ONE, 0);
+
+        // then
+        assertEquals(2, store.getStats().getLiveQuotes());
+        assertEquals(2, store.getStats().getCapacity());
+    }
+
+    @Test
+    void shouldThrowWhenTooManyLiveQuotes() {
+        // given
+        QuoteStore store = new QuoteStore(1_000, 100, 2, 3, 0);
+        for (int i = 0; i < 3; i++) {
+            store.issue(BigDecimal.ONE, "USD", "PLN", BID, BigDecimal.ONE, 0);
+        }
+
+        // when / then
+        assertThrows(QuoteCapacityExceededException.class,
+                () -> store.issue(BigDecimal.ONE, "USD", "PLN", BID, BigDecimal.ONE, 0));
+        store.advance(1_000);
+        assertDoesNotThrow(() -> store.issue(BigDecimal.ONE, "USD", "PLN", BID, BigDecimal.ONE, 1_000));
+    }
+
+    @Test
+    void shouldMatchHashMapUnderRandomOperations() {
+        // given
+        Random random = new Random(42);
+        LongIntHashMap map = new LongIntHashMap(4);
+        Map<Long, Integer> expected = new HashMap<>();
+
+        // when
+        for (int i = 0; i < 100_000; i++) {
+            long key = 1 + random.nextInt(2_000);
+            if (random.nextBoolean()) {
+                map.put(key, i);
+                expected.put(key, i);
+            } else {
+                map.remove(key);
+                expected.remove(key);
+            }
+        }
+
+        // then
+        assertEquals(expected.size(), map.size());
+        for (long key = 1; key <= 2_000; key++) {
+            assertEquals(expected.getOrDefault(key, LongIntHashMap.MISSING), map.get(key));
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.converter.currencyconverterback.service;
+
+import com.converter.currencyconverterback.domain.Rates;
+import com.converter.currencyconverterback.domain.RatesSnapshot;
+import com.converter.currencyconverterback.nbp.NbpClient;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+
+@ExtendWith(MockitoExtension.class)
+class ConversionMemoTest {
+
+    private static final List<String> CODES = List.of("PLN", "USD", "EUR", "GBP");
+
+    @Mock
+    private NbpClient nbpClient;
+
+    private final List<Rates> rates = List.of(
+            new Rates("US Dollar", "USD", new BigDecimal("3.9123"), new BigDecimal("3.9913")),
+            new Rates("Euro", "EUR", new BigDecimal("4.2876"), new BigDecimal("4.3742")),
+            new Rates("British Pound", "GBP", new BigDecimal("4.9811"), new BigDecimal("5.0817")));
+
+    @Test
+    void shouldMatchUncachedConversionExactly() {
+        // given
+        when(nbpClient.getSnapshot()).thenReturn(new RatesSnapshot("001/C/NBP/2024", "2024-01-02", rates));
+        CurrencyConversionService service = new CurrencyConversionService(nbpClient);
+        ConversionMemo memo = new ConversionMemo(nbpClient, service, 96);
+
+        // when / then: the first round fills the memo, the second is answered from it
+        for (int round = 0; round < 2; round++) {
+            for (String amount : List.of("0", "1", "100", "100.00", "99.995", "12345.6789")) {
+                for (String from : CODES) {
+                    for (String to : CODES) {
+                        BigDecimal value = new BigDecimal(amount);
+                        assertEquals(service.convertCurrency(value, from, to), memo.convert(value, from, to));
+                    }
+                }
+            }
+        }
+        ConversionMemoStats stats = memo.getStats();
+        assertEquals(80, stats.getEntries()); // 100 and 100.00 share their 16 entries
+        assertEquals(112, stats.getHits());
+        assertEquals(80, stats.getMisses());
+        assertTrue(stats.getMemoryBytes() > 0);
+    }
+
+    @Test
+    void shouldShareEntryBetweenAmountsOfDifferentScale() {
+        // given
+        CurrencyConversionService service = mock(CurrencyConversionService.class);
+        ConversionMemo memo = new ConversionMemo(nbpClient, service, 16);
+        RatesSnapshot snapshot = new RatesSnapshot("001/C/NBP/2024", "2024-01-02", rates);
+        when(nbpClient.getSnapshot()).thenReturn(snapshot);
+        when(service.convertCurrency(snapshot, new BigDecimal("100"), "EUR", "PLN")).thenReturn(new BigDecimal("428.76"));
+
+        // when
+        BigDecimal miss = memo.convert(new BigDecimal("100"), "EUR", "PLN");
+        BigDecimal hit = memo.convert(new BigDecimal("100.00"), "EUR", "PLN");
+
+        // then
+        assertEquals(miss, hit);
+        assertEquals(1, memo.getStats().getEntries());
+        assertEquals(1, memo.getStats().getHits());
+    }
+
+    @Test
+    void shouldServeHitsAndDropThemWhenTableChanges() {
+        // given
+        CurrencyConversionService service = mock(CurrencyConversionService.class);
+        ConversionMemo memo = new ConversionMemo(nbpClient, service, 16);
+        RatesSnapshot first = new RatesSnapshot("001/C/NBP/2024", "2024-01-02", rates);
+        RatesSnapshot second = new RatesSnapshot("002/C/NBP/2024", "2024-01-03", rates);
+        BigDecimal amount = new BigDecimal("100");
+        when(nbpClient.getSnapshot()).thenReturn(first, first, second);
+        when(service.convertCurrency(first, amount, "EUR", "PLN")).thenReturn(new BigDecimal("428.76"));
+        when(service.convertCurrency(second, amount, "EUR", "PLN")).thenReturn(new BigDecimal("430.00"));
+
+        // when
+        BigDecimal miss = memo.convert(amount, "EUR", "PLN");
+        BigDecimal hit = memo.convert(amount, "EUR", "PLN");
+        BigDecimal afterTableChange = memo.convert(amount, "EUR", "PLN");
+
+        // then
+        assertEquals(new BigDecimal("428.76"), miss);
+        assertEquals(miss, hit);
+        assertEquals(new BigDecimal("430.00"), afterTableChange);
+        assertEquals(1, memo.getStats().getHits());
+        assertEquals(2, memo.getStats().getMisses());
+        assertEquals(0.5 / 1.5, memo.getStats().getHitRatio(), 1e-9);
+    }
+
+    @Test
+    void shouldCoalesceConcurrentIdenticalRequests() throws Exception {
+        // given
+        CurrencyConversionService service = mock(CurrencyConversionService.class);
+        ConversionMemo memo = new ConversionMemo(nbpClient, service, 16);
+        RatesSnapshot snapshot = new RatesSnapshot("001/C/NBP/2024", "2024-01-02", rates);
+        when(nbpClient.getSnapshot()).thenReturn(snapshot);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(service.convertCurrency(eq(snapshot), any(BigDecimal.class), eq("EUR"), eq("PLN"))).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return new BigDecimal("428.76");
+        });
+
+        // when
+        CompletableFuture<BigDecimal> owner = CompletableFuture.supplyAsync(
+                () -> memo.convert(new BigDecimal("100"), "EUR", "PLN"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<BigDecimal> follower = CompletableFuture.supplyAsync(
+                () -> memo.convert(new BigDecimal("100"), "EUR", "PLN"));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (memo.getStats().getCoalesced() == 0 && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+
+        // then
+        assertEquals(new BigDecimal("428.76"), owner.get(5, TimeUnit.SECONDS));
+        assertEquals(new BigDecimal("428.76"), follower.get(5, TimeUnit.SECONDS));
+        assertEquals(1, memo.getStats().getCoalesced());
+        verify(service, times(1)).convertCurrency(eq(snapshot), any(BigDecimal.class), eq("EUR"), eq("PLN"));
+    }
+
+    @Test
+    void shouldShareFailureWithoutMemoizingIt() {
+        // given
+        CurrencyConversionService service = mock(CurrencyConversionService.class);
+        ConversionMemo memo = new ConversionMemo(nbpClient, service, 16);
+        RatesSnapshot snapshot = new RatesSnapshot("001/C/NBP/2024", "2024-01-02", rates);
+        when(nbpClient.getSnapshot()).thenReturn(snapshot);
+        when(service.convertCurrency(snapshot, BigDecimal.TEN, "XYZ", "PLN"))
+                .thenThrow(new IllegalArgumentException("Currency not found: XYZ"));
+
+        // when / then
+        assertThrows(IllegalArgumentException.class, () -> memo.convert(BigDecimal.TEN, "XYZ", "PLN"));
+        assertThrows(IllegalArgumentException.class, () -> memo.convert(BigDecimal.TEN, "XYZ", "PLN"));
+        assertEquals(0, memo.getStats().getEntries());
+        verify(service, times(2)).convertCurrency(snapshot, BigDecimal.TEN, "XYZ", "PLN");
+    }
+}
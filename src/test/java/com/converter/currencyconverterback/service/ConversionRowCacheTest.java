@@ -0,0 +1,90 @@
+package com.converter.currencyconverterback.service;
+
+import com.converter.currencyconverterback.domain.Rates;
+import com.converter.currencyconverterback.domain.RatesSnapshot;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+
+@ExtendWith(MockitoExtension.class)
+class ConversionRowCacheTest {
+
+    @Mock
+    private CurrencyConversionService currencyConversionService;
+
+    private ConversionRowCache cache;
+
+    private final List<Rates> rates = List.of(
+            new Rates("US Dollar", "USD", new BigDecimal("3.90"), new BigDecimal("4.00")));
+
+    @BeforeEach
+    void setUp() {
+        cache = new ConversionRowCache(currencyConversionService, new ObjectMapper(), 2);
+    }
+
+    @Test
+    void shouldServeSerializedRowFromCache() {
+        // given
+        RatesSnapshot snapshot = new RatesSnapshot("001/C/NBP/2024", "2024-01-02", rates);
+        BigDecimal amount = new BigDecimal("100");
+        when(currencyConversionService.convertToAll(snapshot, amount, "PLN", null))
+                .thenReturn(Map.of("USD", new BigDecimal("25.00")));
+
+        // when
+        byte[] first = cache.getSerializedRow(snapshot, amount, "PLN", null);
+        byte[] second = cache.getSerializedRow(snapshot, amount, "PLN", null);
+
+        // then
+        assertEquals("{\"USD\":25.00}", new String(first));
+        assertSame(first, second);
+        verify(currencyConversionService, times(1)).convertToAll(any(), any(), any(), any());
+    }
+
+    @Test
+    void shouldShareRowBetweenAmountsOfDifferentScale() {
+        // given
+        RatesSnapshot snapshot = new RatesSnapshot("001/C/NBP/2024", "2024-01-02", rates);
+        when(currencyConversionService.convertToAll(snapshot, new BigDecimal("100"), "PLN", null))
+                .thenReturn(Map.of("USD", new BigDecimal("25.00")));
+
+        // when
+        byte[] first = cache.getSerializedRow(snapshot, new BigDecimal("100"), "PLN", null);
+        byte[] second = cache.getSerializedRow(snapshot, new BigDecimal("100.00"), "PLN", null);
+
+        // then
+        assertSame(first, second);
+        verify(currencyConversionService, times(1)).convertToAll(any(), any(), any(), any());
+    }
+
+    @Test
+    void shouldDropRowsWhenTableChanges() {
+        // given
+        RatesSnapshot oldTable = new RatesSnapshot("001/C/NBP/2024", "2024-01-02", rates);
+        RatesSnapshot newTable = new RatesSnapshot("002/C/NBP/2024", "2024-01-03", rates);
+        BigDecimal amount = new BigDecimal("100");
+        when(currencyConversionService.convertToAll(any(), eq(amount), eq("PLN"), any()))
+                .thenReturn(Map.of("USD", new BigDecimal("25.00")))
+                .thenReturn(Map.of("USD", new BigDecimal("24.00")));
+
+        // when
+        cache.getSerializedRow(oldTable, amount, "PLN", null);
+        byte[] afterSwap = cache.getSerializedRow(newTable, amount, "PLN", null);
+
+        // then
+        assertEquals("{\"USD\":24.00}", new String(afterSwap));
+        verify(currencyConversionService).convertToAll(newTable, amount, "PLN", null);
+    }
+}
@@ -1,6 +1,7 @@
 package com.converter.currencyconverterback.service;
 
 import com.converter.currencyconverterback.domain.Rates;
+import com.converter.currencyconverterback.domain.RatesSnapshot;
 import com.converter.currencyconverterback.nbp.NbpClient;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -13,6 +14,7 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -41,7 +43,7 @@ class CurrencyConversionServiceTest {
     @Test
     void shouldConvertFromPLNToForeignCurrency() {
         // given
-        when(nbpClient.getAllCurrencies()).thenReturn(mockRates);
+        when(nbpClient.getSnapshot()).thenReturn(new RatesSnapshot("001/C/NBP/2024", "2024-01-02", mockRates));
         BigDecimal amount = new BigDecimal("100.00");
 
         // when
@@ -50,13 +52,13 @@ class CurrencyConversionServiceTest {
         // then
         // Normalize a result for robust BigDecimal comparison in currency tests
         assertEquals(new BigDecimal("25.00"), result.setScale(2, RoundingMode.HALF_UP)); // 100 / 4.00 = 25.00
-        verify(nbpClient, times(1)).getAllCurrencies();
+        verify(nbpClient, times(1)).getSnapshot();
     }
 
     @Test
     void shouldConvertFromForeignCurrencyToPLN() {
         // given
-        when(nbpClient.getAllCurrencies()).thenReturn(mockRates);
+        when(nbpClient.getSnapshot()).thenReturn(new RatesSnapshot("001/C/NBP/2024", "2024-01-02", mockRates));
         BigDecimal amount = new BigDecimal("100.00");
 
         // when
@@ -65,13 +67,13 @@ class CurrencyConversionServiceTest {
         // then
         // Normalize a result for robust BigDecimal comparison in currency tests
         assertEquals(new BigDecimal("390.00"), result.setScale(2, RoundingMode.HALF_UP)); // 100 * 3.90 = 390.00
-        verify(nbpClient, times(1)).getAllCurrencies();
+        verify(nbpClient, times(1)).getSnapshot();
     }
 
     @Test
     void shouldConvertBetweenTwoForeignCurrencies() {
         // given
-        when(nbpClient.getAllCurrencies()).thenReturn(mockRates);
+        when(nbpClient.getSnapshot()).thenReturn(new RatesSnapshot("001/C/NBP/2024", "2024-01-02", mockRates));
         BigDecimal amount = new BigDecimal("100.00");
 
         // when
@@ -81,7 +83,7 @@ class CurrencyConversionServiceTest {
         // (100 * 3.90) / 4.40 = 88.6363..., rounded to 88.64
         // Normalize result for robust BigDecimal comparison in currency tests
         assertEquals(new BigDecimal("88.64"), result.setScale(2, RoundingMode.HALF_UP));
-        verify(nbpClient, times(2)).getAllCurrencies();
+        verify(nbpClient, times(1)).getSnapshot();
     }
 
     @Test
@@ -141,7 +143,7 @@ class CurrencyConversionServiceTest {
     @Test
     void shouldThrowExceptionWhenCurrencyNotFound() {
         // given
-        when(nbpClient.getAllCurrencies()).thenReturn(mockRates);
+        when(nbpClient.getSnapshot()).thenReturn(new RatesSnapshot("001/C/NBP/2024", "2024-01-02", mockRates));
 
         // when and then
         IllegalArgumentException exception = assertThrows(
@@ -168,7 +170,7 @@ class CurrencyConversionServiceTest {
     @Test
     void shouldHandleDecimalAmounts() {
         // given
-        when(nbpClient.getAllCurrencies()).thenReturn(mockRates);
+        when(nbpClient.getSnapshot()).thenReturn(new RatesSnapshot("001/C/NBP/2024", "2024-01-02", mockRates));
         BigDecimal amount = new BigDecimal("99.99");
 
         // when
@@ -178,6 +180,68 @@ class CurrencyConversionServiceTest {
         // 99.99 / 4.00 = 24.9975, rounded to 25.00
         // Normalize result for robust BigDecimal comparison in currency tests
         assertEquals(new BigDecimal("25.00"), result.setScale(2, RoundingMode.HALF_UP));
-        verify(nbpClient, times(1)).getAllCurrencies();
+        verify(nbpClient, times(1)).getSnapshot();
+    }
+
+    @Test
+    void shouldConvertToAllCurrenciesExceptSource() {
+        // given
+        RatesSnapshot snapshot = new RatesSnapshot("001/C/NBP/2024", "2024-01-02", mockRates);
+        BigDecimal amount = new BigDecimal("100.00");
+
+        // when
+        Map<String, BigDecimal> result = service.convertToAll(snapshot, amount, "USD", null);
+
+        // then
+        assertEquals(List.of("PLN", "EUR", "GBP"), List.copyOf(result.keySet()));
+        assertEquals(new BigDecimal("390.00"), result.get("PLN"));
+        assertEquals(new BigDecimal("88.64"), result.get("EUR"));
+        assertEquals(new BigDecimal("76.47"), result.get("GBP")); // 390 / 5.10 = 76.470...
+        verify(nbpClient, never()).getSnapshot();
+    }
+
+    @Test
+    void shouldConvertToAllMatchingSingleConversions() {
+        // given
+        RatesSnapshot snapshot = new RatesSnapshot("001/C/NBP/2024", "2024-01-02", mockRates);
+        when(nbpClient.getSnapshot()).thenReturn(snapshot);
+        BigDecimal amount = new BigDecimal("99.99");
+
+        // when
+        Map<String, BigDecimal> result = service.convertToAll(snapshot, amount, "PLN", List.of("USD", "GBP", "PLN"));
+
+        // then
+        for (Map.Entry<String, BigDecimal> entry : result.entrySet()) {
+            assertEquals(service.convertCurrency(amount, "PLN", entry.getKey()), entry.getValue());
+        }
+    }
+
+    @Test
+    void shouldThrowExceptionWhenRequestedTargetCurrencyNotFound() {
+        // given
+        RatesSnapshot snapshot = new RatesSnapshot("001/C/NBP/2024", "2024-01-02", mockRates);
+
+        // when and then
+        IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> service.convertToAll(snapshot, new BigDecimal("100"), "PLN", List.of("USD", "XYZ"))
+        );
+        assertEquals("Currency not found: XYZ", exception.getMessage());
+    }
+
+    @Test
+    void shouldValidateConversionWithoutConverting() {
+        // given
+        RatesSnapshot snapshot = new RatesSnapshot("001/C/NBP/2024", "2024-01-02", mockRates);
+
+        // when and then
+        assertDoesNotThrow(() -> service.validateConversion(snapshot, new BigDecimal("100"), "USD", null));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.validateConversion(snapshot, new BigDecimal("-1"), "USD", null));
+        IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> service.validateConversion(snapshot, new BigDecimal("100"), "PLN", List.of("EUR", "XYZ"))
+        );
+        assertEquals("Currency not found: XYZ", exception.getMessage());
     }
 }
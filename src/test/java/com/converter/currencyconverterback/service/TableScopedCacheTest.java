@@ -0,0 +1,66 @@
+package com.converter.currencyconverterback.service;
+
+import com.converter.currencyconverterback.domain.RatesSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class TableScopedCacheTest {
+
+    @Test
+    void shouldDropEntriesWhenNewerTableIsSeen() {
+        // given
+        TableScopedCache<String> cache = new TableScopedCache<>("test", 4, (key, value) -> value.length());
+        RatesSnapshot oldTable = new RatesSnapshot("001/C/NBP/2024", "2024-01-02", List.of());
+        RatesSnapshot newTable = new RatesSnapshot("002/C/NBP/2024", "2024-01-03", List.of());
+        cache.put(oldTable, "key", "old");
+
+        // when
+        String afterSwap = cache.get(newTable, "key");
+
+        // then
+        assertNull(afterSwap);
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getWeight());
+    }
+
+    @Test
+    void shouldIgnoreOlderTableStillInFlightDuringSwap() {
+        // given
+        TableScopedCache<String> cache = new TableScopedCache<>("test", 4, (key, value) -> value.length());
+        RatesSnapshot oldTable = new RatesSnapshot("001/C/NBP/2024", "2024-01-02", List.of());
+        RatesSnapshot newTable = new RatesSnapshot("002/C/NBP/2024", "2024-01-03", List.of());
+        cache.put(newTable, "key", "new");
+
+        // when
+        String staleRead = cache.get(oldTable, "key");
+        cache.put(oldTable, "key", "old");
+
+        // then
+        assertNull(staleRead);
+        assertEquals("new", cache.get(newTable, "key"));
+        assertEquals(3, cache.getWeight());
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedAndTrackWeight() {
+        // given
+        TableScopedCache<String> cache = new TableScopedCache<>("test", 2, (key, value) -> value.length());
+        RatesSnapshot table = new RatesSnapshot("001/C/NBP/2024", "2024-01-02", List.of());
+        cache.put(table, "a", "1");
+        cache.put(table, "b", "22");
+
+        // when
+        cache.get(table, "a");
+        cache.put(table, "c", "333");
+
+        // then
+        assertNull(cache.get(table, "b"));
+        assertEquals("1", cache.get(table, "a"));
+        assertEquals(2, cache.size());
+        assertEquals(4, cache.getWeight());
+    }
+}
@@ -0,0 +1,187 @@
+package com.converter.currencyconverterback.upstream;
+
+import com.converter.currencyconverterback.MutableClock;
+import com.converter.currencyconverterback.exception.UpstreamUnavailableException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class HedgedFetcherTest {
+
+    private final MutableClock clock = new MutableClock("2024-01-02T08:00:00Z");
+
+    private FetchPolicy policy(long deadlineMs, long hedgeDelayMs) {
+        return new FetchPolicy(Duration.ofMillis(deadlineMs), Duration.ofMillis(hedgeDelayMs),
+                Duration.ofMillis(10), 3, Duration.ofSeconds(30));
+    }
+
+    @Test
+    void shouldReturnFreshValueAndRememberItAsLastGood() {
+        // given
+        HedgedFetcher<String> fetcher = new HedgedFetcher<>("stub", policy(1000, 500), "initial", clock);
+        StubUpstream upstream = new StubUpstream().respond("fresh").fail();
+
+        // when
+        String first = fetcher.fetch(upstream);
+        String second = fetcher.fetch(upstream);
+
+        // then
+        assertEquals("fresh", first);
+        assertEquals("fresh", second);
+        assertEquals(1, fetcher.getStats().getFailures());
+    }
+
+    @Test
+    void shouldHedgeWhenFirstAttemptIsSlow() {
+        // given
+        HedgedFetcher<String> fetcher = new HedgedFetcher<>("stub", policy(10_000, 50), "initial", clock);
+        CountDownLatch slowAttempt = new CountDownLatch(1);
+        StubUpstream upstream = new StubUpstream().respondAfter(slowAttempt, "slow").respond("hedged");
+
+        // when
+        String result = fetcher.fetch(upstream);
+        slowAttempt.countDown();
+
+        // then
+        assertEquals("hedged", result);
+        assertEquals(2, upstream.calls.get());
+        assertEquals(0, fetcher.getStats().getTimeouts());
+        assertEquals(1, fetcher.getStats().getHedges());
+        assertEquals(1, fetcher.getStats().getHedgeWins());
+    }
+
+    @Test
+    void shouldServeLastGoodDataWhenDeadlinePasses() {
+        // given
+        HedgedFetcher<String> fetcher = new HedgedFetcher<>("stub", policy(200, 1000), "initial", clock);
+        CountDownLatch lateAttempt = new CountDownLatch(1);
+        StubUpstream upstream = new StubUpstream().respond("good").respondAfter(lateAttempt, "late");
+        fetcher.fetch(upstream);
+
+        // when
+        String result = fetcher.fetch(upstream);
+        lateAttempt.countDown();
+
+        // then
+        assertEquals("good", result);
+        assertEquals(1, fetcher.getStats().getTimeouts());
+        assertEquals(0, fetcher.getStats().getFailures());
+    }
+
+    @Test
+    void shouldThrowInsteadOfServingLastGoodDataWhenAsked() {
+        // given
+        HedgedFetcher<String> fetcher = new HedgedFetcher<>("stub", policy(1000, 500), "initial", clock);
+        StubUpstream upstream = new StubUpstream().respond("good").fail();
+        fetcher.fetchOrThrow(upstream);
+
+        // when and then
+        assertThrows(UpstreamUnavailableException.class, () -> fetcher.fetchOrThrow(upstream));
+        assertEquals(1, fetcher.getStats().getFailures());
+    }
+
+    @Test
+    void shouldOpenBreakerAfterRepeatedFailuresAndProbeLater() {
+        // given
+        HedgedFetcher<String> fetcher = new HedgedFetcher<>("stub", policy(1000, 500), "initial", clock);
+        StubUpstream upstream = new StubUpstream().fail().fail().fail().respond("recovered");
+
+        // when
+        for (int i = 0; i < 3; i++) {
+            assertEquals("initial", fetcher.fetch(upstream));
+        }
+        String whileOpen = fetcher.fetch(upstream);
+
+        // then
+        assertEquals("initial", whileOpen);
+        assertEquals(3, upstream.calls.get());
+        assertEquals(CircuitBreaker.State.OPEN, fetcher.getStats().getBreakerState());
+        assertEquals(1, fetcher.getStats().getShortCircuits());
+
+        // when the open period is over
+        clock.advance(Duration.ofSeconds(31));
+        String probe = fetcher.fetch(upstream);
+
+        // then
+        assertEquals("recovered", probe);
+        assertEquals(4, upstream.calls.get());
+        assertEquals(CircuitBreaker.State.CLOSED, fetcher.getStats().getBreakerState());
+    }
+
+    @Test
+    void shouldReopenBreakerWhenProbeFails() {
+        // given
+        CircuitBreaker breaker = new CircuitBreaker(2, Duration.ofSeconds(10), clock);
+        breaker.onFailure();
+        breaker.onFailure();
+
+        // when
+        boolean rejected = !breaker.tryAcquire();
+        clock.advance(Duration.ofSeconds(11));
+        boolean probeAllowed = breaker.tryAcquire();
+        boolean secondProbeAllowed = breaker.tryAcquire();
+        breaker.onFailure();
+
+        // then
+        assertTrue(rejected);
+        assertTrue(probeAllowed);
+        assertFalse(secondProbeAllowed);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    /**
+     * Local stand-in for an upstream that replays a script of responses, gated responses and errors, one entry
+     * per call.
+     */
+    private static class StubUpstream implements Supplier<String> {
+
+        private final Deque<Object[]> script = new ConcurrentLinkedDeque<>();
+        private final AtomicInteger calls = new AtomicInteger();
+
+        StubUpstream respond(String value) {
+            script.add(new Object[]{value, null});
+            return this;
+        }
+
+        /**
+         * Answers only once the gate is opened, so tests never depend on how long a slow call takes.
+         */
+        StubUpstream respondAfter(CountDownLatch gate, String value) {
+            script.add(new Object[]{value, gate});
+            return this;
+        }
+
+        StubUpstream fail() {
+            script.add(new Object[]{null, null});
+            return this;
+        }
+
+        @Override
+        public String get() {
+            calls.incrementAndGet();
+            Object[] step = script.poll();
+            if (step == null) {
+                throw new IllegalStateException("No scripted response left");
+            }
+            try {
+                if (step[1] != null) {
+                    ((CountDownLatch) step[1]).await();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (step[0] == null) {
+                throw new IllegalStateException("Injected upstream error");
+            }
+            return (String) step[0];
+        }
+    }
+}